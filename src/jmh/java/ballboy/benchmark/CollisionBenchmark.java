@@ -0,0 +1,43 @@
+package ballboy.benchmark;
+
+import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
+import ballboy.model.entities.utilities.AxisAlignedBoundingBoxImpl;
+import ballboy.model.entities.utilities.Vector2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of AxisAlignedBoundingBoxImpl.collidesWith for overlapping and separate boxes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    private final AxisAlignedBoundingBox box = new AxisAlignedBoundingBoxImpl(new Vector2D(0.0, 0.0), 20.0, 20.0);
+    private final AxisAlignedBoundingBox overlapping =
+            new AxisAlignedBoundingBoxImpl(new Vector2D(10.0, 10.0), 20.0, 20.0);
+    private final AxisAlignedBoundingBox separate =
+            new AxisAlignedBoundingBoxImpl(new Vector2D(100.0, 100.0), 20.0, 20.0);
+
+    @Benchmark
+    public boolean collidesWithOverlapping() {
+        return box.collidesWith(overlapping);
+    }
+
+    @Benchmark
+    public boolean collidesWithSeparate() {
+        return box.collidesWith(separate);
+    }
+}
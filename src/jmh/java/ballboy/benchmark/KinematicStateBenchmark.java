@@ -0,0 +1,44 @@
+package ballboy.benchmark;
+
+import ballboy.model.entities.utilities.KinematicState;
+import ballboy.model.entities.utilities.KinematicStateImpl;
+import ballboy.model.entities.utilities.Vector2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of stepping a single KinematicStateImpl forward.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KinematicStateBenchmark {
+    private KinematicState state;
+
+    @Setup
+    public void setUp() {
+        state = new KinematicStateImpl.KinematicStateBuilder()
+                .setPosition(new Vector2D(100.0, 100.0))
+                .setHorizontalVelocity(20.0)
+                .build();
+        state.setHorizontalAcceleration(10.0);
+    }
+
+    @Benchmark
+    public void update() {
+        state.update(SyntheticLevels.FRAME_DURATION_MILLI, 700.0);
+    }
+}
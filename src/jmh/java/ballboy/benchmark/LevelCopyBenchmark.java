@@ -0,0 +1,52 @@
+package ballboy.benchmark;
+
+import ballboy.model.Level;
+import ballboy.save.Momento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of copying a level, directly and through a save.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelCopyBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private Level level;
+
+    @Setup
+    public void setUp() {
+        level = SyntheticLevels.create(entityCount);
+        // move the world away from its initial state before copying it
+        for (int i = 0; i < 100; ++i) {
+            level.update();
+        }
+    }
+
+    @Benchmark
+    public Level copy() {
+        return level.copy();
+    }
+
+    @Benchmark
+    public Momento createMomento() {
+        return level.createMomento();
+    }
+}
@@ -0,0 +1,43 @@
+package ballboy.benchmark;
+
+import ballboy.model.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one LevelImpl.update() as the number of entities grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelUpdateBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private Level level;
+
+    // a fresh level per iteration, so that every iteration measures a comparable state of the world
+    @Setup(org.openjdk.jmh.annotations.Level.Iteration)
+    public void setUp() {
+        level = SyntheticLevels.create(entityCount);
+    }
+
+    @Benchmark
+    public void update() {
+        level.update();
+    }
+}
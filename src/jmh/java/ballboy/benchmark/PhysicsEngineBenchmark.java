@@ -0,0 +1,100 @@
+package ballboy.benchmark;
+
+import ballboy.model.Entity;
+import ballboy.model.Level;
+import ballboy.model.entities.DynamicEntity;
+import ballboy.model.entities.DynamicEntityImpl;
+import ballboy.model.entities.StaticEntity;
+import ballboy.model.entities.StaticEntityImpl;
+import ballboy.model.entities.behaviour.PassiveEntityBehaviourStrategy;
+import ballboy.model.entities.collision.PassiveCollisionStrategy;
+import ballboy.model.entities.utilities.AxisAlignedBoundingBoxImpl;
+import ballboy.model.entities.utilities.KinematicStateImpl;
+import ballboy.model.entities.utilities.Vector2D;
+import ballboy.model.levels.PhysicsEngine;
+import ballboy.model.levels.PhysicsEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of resolving a horizontal collision, against a dynamic and against a static entity.
+ * <p>
+ * Resolving a collision changes the state it depends on, so every invocation first puts the entities back. The
+ * reset benchmark measures that on its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhysicsEngineBenchmark {
+    private static final double SIZE = 20.0;
+
+    private final PhysicsEngine physicsEngine = new PhysicsEngineImpl(SyntheticLevels.FRAME_DURATION_MILLI);
+    private Level level;
+    private DynamicEntity movingEntity;
+    private DynamicEntity dynamicObstacle;
+    private StaticEntity staticObstacle;
+
+    @Setup
+    public void setUp() {
+        level = SyntheticLevels.create(10);
+        movingEntity = dynamicEntity(0, 0.0);
+        dynamicObstacle = dynamicEntity(1, 30.0);
+        staticObstacle = new StaticEntityImpl(
+                2,
+                new AxisAlignedBoundingBoxImpl(new Vector2D(30.0, 0.0), SIZE, SIZE), Entity.Layer.FOREGROUND, null);
+    }
+
+    private static DynamicEntity dynamicEntity(
+            int id,
+            double x) {
+        return new DynamicEntityImpl(
+                id,
+                new KinematicStateImpl.KinematicStateBuilder().setPosition(new Vector2D(x, 0.0)).build(),
+                new AxisAlignedBoundingBoxImpl(new Vector2D(x, 0.0), SIZE, SIZE),
+                Entity.Layer.FOREGROUND,
+                null,
+                new PassiveCollisionStrategy(),
+                new PassiveEntityBehaviourStrategy(),
+                null);
+    }
+
+    /*
+     * The moving entity was clear of both obstacles before the last update, and overlaps them after it.
+     */
+    private void reset() {
+        movingEntity.setPosition(0.0, 0.0);
+        movingEntity.setPosition(15.0, 0.0);
+        movingEntity.setVelocity(10.0, 0.0);
+        dynamicObstacle.setVelocity(-10.0, 0.0);
+    }
+
+    @Benchmark
+    public void reset_baseline() {
+        reset();
+    }
+
+    @Benchmark
+    public void resolveDynamicCollision() {
+        reset();
+        physicsEngine.resolveCollision(movingEntity, dynamicObstacle);
+    }
+
+    @Benchmark
+    public void resolveStaticCollision() {
+        reset();
+        physicsEngine.resolveCollision(movingEntity, staticObstacle, level);
+    }
+}
@@ -0,0 +1,30 @@
+package ballboy.benchmark;
+
+import ballboy.GameLoader;
+import ballboy.model.Level;
+import ballboy.model.levels.LevelGenerator;
+import ballboy.model.levels.LevelImpl;
+import ballboy.model.levels.PhysicsEngineImpl;
+
+/**
+ * Builds generated levels of a given size for the benchmarks, through the same factories as the game.
+ */
+final class SyntheticLevels {
+    static final double FRAME_DURATION_MILLI = 17;
+    private static final long SEED = 42;
+
+    private SyntheticLevels() {
+    }
+
+    /**
+     * @param entityCount The number of generic entities.
+     * @return Level A level whose width grows with the number of entities, so that their density stays constant.
+     */
+    static Level create(int entityCount) {
+        return new LevelImpl(
+                LevelGenerator.ofSize(entityCount, SEED).generate(),
+                new PhysicsEngineImpl(FRAME_DURATION_MILLI),
+                GameLoader.createEntityFactoryRegistry(),
+                FRAME_DURATION_MILLI);
+    }
+}
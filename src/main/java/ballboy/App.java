@@ -1,38 +1,44 @@
 package ballboy;
 
-import ballboy.model.Entity;
 import ballboy.model.GameEngine;
-import ballboy.model.GameEngineImpl;
-import ballboy.model.Level;
-import ballboy.model.factories.*;
-import ballboy.model.levels.LevelImpl;
-import ballboy.model.levels.PhysicsEngine;
-import ballboy.model.levels.PhysicsEngineImpl;
+import ballboy.model.InputQueue;
+import ballboy.replay.InputLogWriter;
+import ballboy.replay.InputRecorder;
 import ballboy.view.GameWindow;
+import ballboy.view.Viewport;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
-import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Map;
 
 /*
  * Application root.
  *
- * Wiring of the dependency graph should be done manually in the start method.
+ * Wiring of the dependency graph is done by GameLoader, which is shared with HeadlessApp.
+ * With --record=<log> the session is recorded into an input log, which ReplayApp plays back. State is hashed every
+ * --hashInterval=<ticks> ticks, every tick by default.
+ * With --latencyStats the mean and longest time from key presses to the end of the tick that applied them are printed
+ * on exit.
  */
 public class App extends Application {
+    private InputRecorder recorder;
+    private GameWindow window;
+    private GameEngine gameEngine;
+    private boolean printLatencyStats = false;
 
     public static void main(String[] args) {
         launch(args);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void start(Stage primaryStage) {
         Map<String, String> params = getParameters().getNamed();
-        List<Level> levels = new ArrayList<>();
+        printLatencyStats = getParameters().getUnnamed().contains("--latencyStats");
 
         String s = "Java 11 sanity check";
         if (s.isBlank()) {
@@ -49,30 +55,40 @@ public class App extends Application {
             System.exit(-1);
         }
 
-        final double frameDurationMilli = 17;
-        PhysicsEngine engine = new PhysicsEngineImpl(frameDurationMilli);
-
-        EntityFactoryRegistry entityFactoryRegistry = new EntityFactoryRegistry();
-        entityFactoryRegistry.registerFactory("cloud", new CloudFactory());
-        entityFactoryRegistry.registerFactory("enemy", new EnemyFactory());
-        entityFactoryRegistry.registerFactory("background", new StaticEntityFactory(Entity.Layer.BACKGROUND));
-        entityFactoryRegistry.registerFactory("static", new StaticEntityFactory(Entity.Layer.FOREGROUND));
-        entityFactoryRegistry.registerFactory("finish", new FinishFactory());
-        entityFactoryRegistry.registerFactory("hero", new BallboyFactory());
-        entityFactoryRegistry.registerFactory("squarecat", new SquareCatFactory());
-
-
-        Integer levelIndex = ((Number) parsedConfiguration.get("currentLevelIndex")).intValue();
-        JSONArray levelConfigs = (JSONArray) parsedConfiguration.get("levels");
-        for (int levelindex =  0; levelindex < levelConfigs.size(); levelindex ++){
-            JSONObject levelconfig = (JSONObject) levelConfigs.get(levelindex);
-            Level level = new LevelImpl(levelconfig, engine, entityFactoryRegistry, frameDurationMilli);
-            levels.add(level);
+        gameEngine = GameLoader.createGameEngine(parsedConfiguration);
+        if (params.containsKey("record")) {
+            try {
+                int hashInterval = Integer.parseInt(params.getOrDefault("hashInterval", "1"));
+                recorder = new InputRecorder(gameEngine,
+                        new InputLogWriter(Paths.get(params.get("record")), parsedConfiguration.toJSONString()),
+                        hashInterval);
+                gameEngine = recorder;
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println(e);
+                System.exit(-1);
+            }
         }
-        GameEngine gameEngine = new GameEngineImpl(levels, levelIndex);
+        gameEngine.setFinishListener(Platform::exit);
 
-        GameWindow window = new GameWindow(gameEngine, 640, 400, frameDurationMilli);
-        window.run();
+        JSONObject renderingConfig = (JSONObject) parsedConfiguration.get("rendering");
+        GameWindow.RenderMode renderMode = GameWindow.RenderMode.NODES;
+        double cullMargin = Viewport.DEFAULT_CULL_MARGIN;
+        try {
+            renderMode = parseRenderMode(renderingConfig);
+            if (renderingConfig != null) {
+                cullMargin = ((Number) renderingConfig.getOrDefault("cullMargin", cullMargin)).doubleValue();
+            }
+            if (!(cullMargin >= 0)) {
+                throw new ConfigurationParseException(String.format("%f is not a valid cull margin\n", cullMargin));
+            }
+        } catch (ConfigurationParseException e) {
+            System.out.println(e);
+            System.exit(-1);
+        }
+        JSONObject simulationConfig = (JSONObject) parsedConfiguration.get("simulation");
+        boolean simulationThread = simulationConfig != null
+                && Boolean.TRUE.equals(simulationConfig.getOrDefault("dedicatedThread", false));
+        window = new GameWindow(gameEngine, 640, 400, renderMode, cullMargin, simulationThread);
 
         primaryStage.setTitle("Ballboy");
         primaryStage.setScene(window.getScene());
@@ -81,4 +97,41 @@ public class App extends Application {
 
         window.run();
     }
+
+    /**
+     * @param renderingConfig The rendering configuration, which may be null.
+     * @return GameWindow.RenderMode How entities are drawn, with nodes by default.
+     * @throws ConfigurationParseException Thrown when the mode is not known.
+     */
+    @SuppressWarnings("unchecked")
+    private static GameWindow.RenderMode parseRenderMode(JSONObject renderingConfig) {
+        String mode = renderingConfig == null ? "nodes" : (String) renderingConfig.getOrDefault("mode", "nodes");
+        switch (mode) {
+            case "nodes":
+                return GameWindow.RenderMode.NODES;
+            case "canvas":
+                return GameWindow.RenderMode.CANVAS;
+            default:
+                throw new ConfigurationParseException(String.format("%s is not a valid render mode\n", mode));
+        }
+    }
+
+    @Override
+    public void stop() throws IOException, InterruptedException {
+        // the recorder is written to from the simulation, so the simulation is stopped first
+        if (window != null) {
+            window.stop();
+        }
+        if (recorder != null) {
+            recorder.close();
+        }
+        if (!printLatencyStats) {
+            return;
+        }
+        InputQueue inputs = gameEngine.getInputQueue();
+        if (inputs.getAppliedInputs() > 0) {
+            System.out.println(String.format("Input latency over %d inputs: mean %.2f ms, max %.2f ms",
+                    inputs.getAppliedInputs(), inputs.getMeanLatencyNanos() / 1e6, inputs.getMaxLatencyNanos() / 1e6));
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package ballboy;
+
+import ballboy.model.Entity;
+import ballboy.model.FixedTimestepScheduler;
+import ballboy.model.GameEngine;
+import ballboy.model.GameEngineImpl;
+import ballboy.model.Level;
+import ballboy.model.LevelSequence;
+import ballboy.model.factories.*;
+import ballboy.model.levels.LevelImpl;
+import ballboy.model.levels.PhysicsEngine;
+import ballboy.model.levels.PhysicsEngineImpl;
+import ballboy.save.AutosaveService;
+import ballboy.save.RewindHistory;
+import ballboy.save.SaveChain;
+import ballboy.save.SaveFile;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Wires the model together from a parsed configuration.
+ * <p>
+ * This is shared by App and HeadlessApp, and does not require a JavaFX toolkit.
+ */
+public class GameLoader {
+
+    /**
+     * @return EntityFactoryRegistry A registry holding the factories of every entity type of the configuration.
+     */
+    public static EntityFactoryRegistry createEntityFactoryRegistry() {
+        EntityFactoryRegistry entityFactoryRegistry = new EntityFactoryRegistry();
+        entityFactoryRegistry.registerFactory("cloud", new CloudFactory());
+        entityFactoryRegistry.registerFactory("enemy", new EnemyFactory());
+        entityFactoryRegistry.registerFactory("background", new StaticEntityFactory(Entity.Layer.BACKGROUND));
+        entityFactoryRegistry.registerFactory("static", new StaticEntityFactory(Entity.Layer.FOREGROUND));
+        entityFactoryRegistry.registerFactory("finish", new FinishFactory());
+        entityFactoryRegistry.registerFactory("hero", new BallboyFactory());
+        entityFactoryRegistry.registerFactory("squarecat", new SquareCatFactory());
+        return entityFactoryRegistry;
+    }
+
+    /**
+     * Builds the game engine running the levels of the configuration. Levels are built from their configuration
+     * when they are first needed, and the level after the current one is built in the background.
+     *
+     * @param parsedConfiguration The root of the configuration, as parsed from config.json.
+     * @return GameEngine The game engine, positioned at the configured current level.
+     * @throws ConfigurationParseException Thrown in the instance of an invalid configuration.
+     */
+    @SuppressWarnings("unchecked")
+    public static GameEngine createGameEngine(JSONObject parsedConfiguration) {
+        JSONObject simulationConfig = (JSONObject) parsedConfiguration.get("simulation");
+        double tickDurationMilli = GameEngineImpl.DEFAULT_TICK_DURATION_MILLI;
+        int subSteps = 1;
+        int maxCatchUpTicks = GameEngineImpl.DEFAULT_MAX_CATCH_UP_TICKS;
+        if (simulationConfig != null) {
+            tickDurationMilli = ((Number) simulationConfig.getOrDefault("tickDurationMilli", tickDurationMilli))
+                    .doubleValue();
+            subSteps = ((Number) simulationConfig.getOrDefault("subSteps", subSteps)).intValue();
+            maxCatchUpTicks = ((Number) simulationConfig.getOrDefault("maxCatchUpTicks", maxCatchUpTicks)).intValue();
+            if (!(tickDurationMilli > 0) || subSteps <= 0 || maxCatchUpTicks <= 0) {
+                throw new ConfigurationParseException("simulation settings must be positive");
+            }
+        }
+
+        // every tick is split into sub-steps, each of which is one level update
+        final double frameDurationMilli = tickDurationMilli / subSteps;
+        PhysicsEngine engine = new PhysicsEngineImpl(frameDurationMilli);
+        EntityFactoryRegistry entityFactoryRegistry = createEntityFactoryRegistry();
+
+        // the factories are stateless and the configuration is only read, so levels can be built off the game thread
+        List<Supplier<Level>> templates = new ArrayList<>();
+        Integer levelIndex = ((Number) parsedConfiguration.get("currentLevelIndex")).intValue();
+        JSONArray levelConfigs = (JSONArray) parsedConfiguration.get("levels");
+        for (int levelindex =  0; levelindex < levelConfigs.size(); levelindex ++){
+            JSONObject levelconfig = (JSONObject) levelConfigs.get(levelindex);
+            templates.add(() -> new LevelImpl(levelconfig, engine, entityFactoryRegistry, frameDurationMilli));
+        }
+        LevelSequence levels = new LevelSequence(templates, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "level-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        GameEngineImpl gameEngine = new GameEngineImpl(levels, levelIndex,
+                new FixedTimestepScheduler(tickDurationMilli, maxCatchUpTicks), subSteps,
+                createRewindHistory((JSONObject) parsedConfiguration.get("rewind"), tickDurationMilli));
+        JSONObject savesConfig = (JSONObject) parsedConfiguration.get("saves");
+        gameEngine.setSaveChain(createSaveChain(savesConfig));
+        if (savesConfig != null && savesConfig.get("file") != null) {
+            int autosaveIntervalTicks = ((Number) savesConfig.getOrDefault("autosaveIntervalTicks", 0)).intValue();
+            if (autosaveIntervalTicks < 0) {
+                throw new ConfigurationParseException(
+                        String.format("%d is not a valid autosave interval\n", autosaveIntervalTicks));
+            }
+            gameEngine.setAutosave(new AutosaveService(Paths.get((String) savesConfig.get("file")),
+                    autosaveIntervalTicks, SaveFile.fingerprint(levelConfigs)));
+            gameEngine.setResumeFromFile(Boolean.TRUE.equals(savesConfig.get("resumeFromFile")));
+        }
+        return gameEngine;
+    }
+
+    /**
+     * @param savesConfig The saves configuration, which may be null.
+     * @return SaveChain The chain for incremental saves, or null when saves are full snapshots.
+     */
+    @SuppressWarnings("unchecked")
+    private static SaveChain createSaveChain(JSONObject savesConfig) {
+        if (savesConfig == null || !Boolean.TRUE.equals(savesConfig.get("incremental"))) {
+            return null;
+        }
+        int consolidationInterval = ((Number) savesConfig.getOrDefault("consolidationInterval", 16)).intValue();
+        if (consolidationInterval <= 0) {
+            throw new ConfigurationParseException(
+                    String.format("%d is not a valid consolidation interval\n", consolidationInterval));
+        }
+        return new SaveChain(consolidationInterval);
+    }
+
+    /**
+     * @param rewindConfig      The rewind configuration, which may be null.
+     * @param tickDurationMilli The duration of one tick.
+     * @return RewindHistory The rewind history, or null when rewinding is not configured.
+     */
+    @SuppressWarnings("unchecked")
+    private static RewindHistory createRewindHistory(
+            JSONObject rewindConfig,
+            double tickDurationMilli) {
+        if (rewindConfig == null) {
+            return null;
+        }
+        double seconds = ((Number) rewindConfig.getOrDefault("seconds", 10)).doubleValue();
+        long byteBudget = ((Number) rewindConfig.getOrDefault("byteBudget", 16 << 20)).longValue();
+        int captureInterval = ((Number) rewindConfig.getOrDefault("captureInterval", 1)).intValue();
+        int keyframeInterval = ((Number) rewindConfig.getOrDefault("keyframeInterval", 30)).intValue();
+        if (!(seconds > 0) || byteBudget <= 0 || byteBudget > Integer.MAX_VALUE || captureInterval <= 0
+                || keyframeInterval <= 0) {
+            throw new ConfigurationParseException("rewind settings must be positive");
+        }
+        int maxFrames = (int) Math.ceil(seconds * 1000 / (tickDurationMilli * captureInterval)) + 1;
+        return new RewindHistory((int) byteBudget, maxFrames, captureInterval, keyframeInterval);
+    }
+}
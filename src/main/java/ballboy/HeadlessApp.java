@@ -0,0 +1,68 @@
+package ballboy;
+
+import ballboy.model.GameEngine;
+import ballboy.model.levels.LevelGenerator;
+import org.json.simple.JSONObject;
+
+/*
+ * Headless entry point, running the simulation as fast as possible without a JavaFX toolkit.
+ *
+ * Usage: HeadlessApp [ticks] [configuration file | generated:<entity count>] [--autosave]. A generated level is built
+ * in memory by LevelGenerator. The simulation stops early once the last level is finished.
+ * Saves are only written to the configured save file with --autosave, so that disk writes do not skew the measured
+ * throughput.
+ */
+public class HeadlessApp {
+    private static final long DEFAULT_TICKS = 100000;
+    private static final String GENERATED_PREFIX = "generated:";
+    private static final long GENERATED_SEED = 0;
+    private static final String AUTOSAVE_FLAG = "--autosave";
+
+    public static void main(String[] args) {
+        long ticks = DEFAULT_TICKS;
+        String configName = "config.json";
+        try {
+            if (args.length > 0) {
+                ticks = Long.parseLong(args[0]);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println(String.format("%s is not a valid number of ticks", args[0]));
+            System.exit(-1);
+        }
+        if (args.length > 1) {
+            configName = args[1];
+        }
+        boolean autosave = args.length > 2 && AUTOSAVE_FLAG.equals(args[2]);
+
+        GameEngine gameEngine = null;
+        try {
+            JSONObject parsedConfiguration;
+            if (configName.startsWith(GENERATED_PREFIX)) {
+                int entityCount = Integer.parseInt(configName.substring(GENERATED_PREFIX.length()));
+                parsedConfiguration = LevelGenerator.ofSize(entityCount, GENERATED_SEED).generateConfiguration();
+            } else {
+                parsedConfiguration = new ConfigurationParser().parseConfig(configName);
+            }
+            JSONObject savesConfig = (JSONObject) parsedConfiguration.get("saves");
+            if (savesConfig != null && !autosave) {
+                savesConfig.remove("file");
+            }
+            gameEngine = GameLoader.createGameEngine(parsedConfiguration);
+        } catch (ConfigurationParseException | IllegalArgumentException e) {
+            System.out.println(e);
+            System.exit(-1);
+        }
+
+        long start = System.nanoTime();
+        long tick = 0;
+        while (tick < ticks && !gameEngine.isFinished()) {
+            gameEngine.tick();
+            ++tick;
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(String.format("Ran %d ticks in %.3f s (%.0f ticks/s)%s", tick, elapsedSeconds,
+                tick / elapsedSeconds, gameEngine.isFinished() ? ", all levels finished" : ""));
+        System.out.println(String.format("Total score: %d", gameEngine.getTotalScore()));
+    }
+}
@@ -0,0 +1,54 @@
+package ballboy;
+
+import ballboy.replay.ReplayResult;
+import ballboy.replay.Replayer;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/*
+ * Replays input logs recorded with App --record=<log> as fast as possible, without a JavaFX toolkit.
+ *
+ * Usage: ReplayApp <log>... Every log is replayed and checked against its recorded state hashes. The exit status is
+ * non-zero if any log cannot be read or does not reproduce, so this can run recorded sessions as a regression test.
+ */
+public class ReplayApp {
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: ReplayApp <log>...");
+            System.exit(-1);
+        }
+
+        boolean failed = false;
+        long totalTicks = 0;
+        long totalNanos = 0;
+        for (String logName : args) {
+            ReplayResult result;
+            try {
+                result = Replayer.replay(Paths.get(logName));
+            } catch (IOException e) {
+                System.out.println(e);
+                failed = true;
+                continue;
+            }
+            totalTicks += result.getTicks();
+            totalNanos += result.getElapsedNanos();
+            if (result.isReproduced()) {
+                System.out.println(String.format("%s: reproduced %d ticks, %d inputs, %d hashes in %.3f s", logName,
+                        result.getTicks(), result.getEvents(), result.getHashesChecked(),
+                        result.getElapsedNanos() / 1e9));
+            } else {
+                System.out.println(String.format("%s: diverged at tick %d", logName, result.getMismatchTick()));
+                failed = true;
+            }
+        }
+
+        double elapsedSeconds = totalNanos / 1e9;
+        System.out.println(String.format("Replayed %d ticks in %.3f s (%.0f ticks/s)", totalTicks, elapsedSeconds,
+                totalTicks / elapsedSeconds));
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
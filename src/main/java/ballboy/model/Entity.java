@@ -14,6 +14,22 @@ public interface Entity {
      */
     Image getImage();
 
+    /**
+     * Returns the ID of this Entity, assigned when it was created. IDs are small, dense and unique within a level,
+     * and stay the same for the lifetime of the entity.
+     *
+     * @return int The ID of this Entity
+     */
+    int getId();
+
+    /**
+     * Returns a version that increases whenever the position, size or image of this Entity changes, so that views can
+     * skip an entity that has not changed since they last drew it.
+     *
+     * @return long The current version of this Entity
+     */
+    long getVersion();
+
     /**
      * @return Vector2 The current position of the entity, being the top left anchor.
      */
@@ -0,0 +1,80 @@
+package ballboy.model;
+
+/**
+ * Converts elapsed real time into a whole number of fixed simulation ticks.
+ * <p>
+ * Elapsed time is added to an accumulator, and one tick is due for every tick duration it holds. When rendering
+ * stalls, at most maxCatchUpTicks are run for one advance and the remaining backlog is dropped, so the cost of a
+ * frame stays bounded and the simulation slows down instead of spiralling. The time left in the accumulator gives
+ * the interpolation alpha between the last two ticks.
+ */
+public class FixedTimestepScheduler {
+    private final double tickDurationMilli;
+    private final int maxCatchUpTicks;
+    private double accumulatorMilli = 0.0;
+
+    /**
+     * @param tickDurationMilli The simulated duration of one tick. Must be positive.
+     * @param maxCatchUpTicks   The largest number of ticks run for one advance. Must be positive.
+     */
+    public FixedTimestepScheduler(
+            double tickDurationMilli,
+            int maxCatchUpTicks) {
+        if (!(tickDurationMilli > 0)) {
+            throw new IllegalArgumentException(String.format("%s is not a valid tick duration", tickDurationMilli));
+        }
+        if (maxCatchUpTicks <= 0) {
+            throw new IllegalArgumentException(String.format("%d is not a valid catch-up limit", maxCatchUpTicks));
+        }
+        this.tickDurationMilli = tickDurationMilli;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+    }
+
+    /**
+     * Adds elapsed real time to the accumulator and takes out the ticks that are now due.
+     *
+     * @param elapsedMilli The real time elapsed since the last advance. Negative values are ignored.
+     * @return int The number of ticks to run, between zero and maxCatchUpTicks.
+     */
+    public int advance(double elapsedMilli) {
+        if (elapsedMilli > 0) {
+            accumulatorMilli += elapsedMilli;
+        }
+        int ticks = (int) Math.min(Math.floor(accumulatorMilli / tickDurationMilli), maxCatchUpTicks);
+        accumulatorMilli -= ticks * tickDurationMilli;
+        if (accumulatorMilli >= tickDurationMilli) {
+            // the backlog could not be caught up on, so it is dropped
+            accumulatorMilli %= tickDurationMilli;
+        }
+        return ticks;
+    }
+
+    /**
+     * @return double How far the accumulator is into the next tick, in [0, 1). Views can use this to interpolate
+     * between the state before and after the last tick.
+     */
+    public double getAlpha() {
+        return accumulatorMilli / tickDurationMilli;
+    }
+
+    /**
+     * @return double The simulated duration of one tick.
+     */
+    public double getTickDurationMilli() {
+        return tickDurationMilli;
+    }
+
+    /**
+     * @return int The largest number of ticks run for one advance.
+     */
+    public int getMaxCatchUpTicks() {
+        return maxCatchUpTicks;
+    }
+
+    /**
+     * Discards any accumulated time, for instance after the game has been paused.
+     */
+    public void reset() {
+        accumulatorMilli = 0.0;
+    }
+}
@@ -49,6 +49,52 @@ public interface GameEngine {
      */
     void tick();
 
+    /**
+     * Instruct the model to progress forward by the real time elapsed since the last advance, running as many
+     * fixed ticks as are due.
+     *
+     * @param elapsedMilli The real time elapsed since the last advance.
+     * @return int The number of ticks that were run.
+     */
+    int advance(double elapsedMilli);
+
+    /**
+     * @return double How far the simulation is into the next tick, in [0, 1). Views can use this to interpolate
+     * between the state before and after the last tick.
+     */
+    double getInterpolationAlpha();
+
+    /**
+     * @return double The simulated duration of one tick.
+     */
+    double getTickDurationMilli();
+
+    /**
+     * @return InputQueue The queue controls from other threads than the engine is simulated on, such as key presses,
+     * are submitted to. It is drained at the start of every tick.
+     */
+    InputQueue getInputQueue();
+
+    /**
+     * Registers a callback that is run before every tick, for instance for views to record the state they
+     * interpolate from.
+     *
+     * @param listener The callback, or null to remove it.
+     */
+    void setTickListener(Runnable listener);
+
+    /**
+     * Registers a callback that is run once the last level has been finished.
+     *
+     * @param listener The callback, or null to remove it.
+     */
+    void setFinishListener(Runnable listener);
+
+    /**
+     * @return boolean True once the last level has been finished.
+     */
+    boolean isFinished();
+
     int getTotalScore();
 
     /**
@@ -60,4 +106,13 @@ public interface GameEngine {
      * Instruct the model to load the saved copy of the level.
      */
     void load();
+
+    /**
+     * Steps the current level back by up to the provided number of ticks, as far as the rewind history reaches.
+     * History does not reach back past the start of the current level, or past a load.
+     *
+     * @param ticks The number of ticks to go back by.
+     * @return int The number of ticks actually gone back by, which is 0 if rewinding is not enabled.
+     */
+    int rewind(int ticks);
 }
@@ -2,35 +2,112 @@ package ballboy.model;
 
 import ballboy.model.entities.observer.Observer;
 import ballboy.model.entities.observer.ScoreObserver;
+import ballboy.save.AutosaveService;
 import ballboy.save.Momento;
-import javafx.application.Platform;
+import ballboy.save.RewindHistory;
+import ballboy.save.SaveChain;
+import ballboy.save.SaveFile;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.List;
 
 /**
  * Implementation of the GameEngine interface.
  * This provides a common interface for the entire game.
+ * <p>
+ * Time is advanced in fixed ticks by a FixedTimestepScheduler, independently of how often the view renders. Each
+ * tick may be split into several level updates (sub-steps), in which case the levels must be built with a frame
+ * duration of the tick duration divided by the number of sub-steps.
  */
 public class GameEngineImpl implements GameEngine {
-    private List<Level> level;
-    private List<Level> level_backup = new ArrayList<>();
+    private final LevelSequence levels;
     private Level currentLevel;
     private Integer levelIndex;
     private Observer totalScore;
     private Momento save;
     private int savedLevelNumber;
-    private Observer savedTotal;
+    private int savedTotal;
+    private final FixedTimestepScheduler scheduler;
+    private final int subSteps;
+    private final RewindHistory rewindHistory;
+    private SaveChain saveChain;
+    private AutosaveService autosave;
+    private boolean resumeFromFile = false;
+    private final InputQueue inputQueue = new InputQueue();
+    private Runnable tickListener;
+    private Runnable finishListener;
+    private boolean finished = false;
+
+    /**
+     * The tick duration used when none is provided, matching the default frame duration of the levels.
+     */
+    public static final double DEFAULT_TICK_DURATION_MILLI = 17;
+    public static final int DEFAULT_MAX_CATCH_UP_TICKS = 5;
 
     public GameEngineImpl(List<Level> level, Integer levelIndex) {
-        this.level = level;
-        for (Level le : level){
-            level_backup.add(le.copy());
+        this(level, levelIndex, new FixedTimestepScheduler(DEFAULT_TICK_DURATION_MILLI, DEFAULT_MAX_CATCH_UP_TICKS),
+                1);
+    }
+
+    public GameEngineImpl(
+            List<Level> level,
+            Integer levelIndex,
+            FixedTimestepScheduler scheduler,
+            int subSteps) {
+        this(LevelSequence.of(level), levelIndex, scheduler, subSteps, null);
+    }
+
+    /**
+     * Only the current level is built up front. The level after it is prefetched while the current one plays, and a
+     * level is discarded once it has been played, or reset.
+     *
+     * @param levels        The levels of the game.
+     * @param rewindHistory The history the current level is recorded into every tick, or null if rewinding is not
+     *                      enabled.
+     */
+    public GameEngineImpl(
+            LevelSequence levels,
+            Integer levelIndex,
+            FixedTimestepScheduler scheduler,
+            int subSteps,
+            RewindHistory rewindHistory) {
+        if (subSteps <= 0) {
+            throw new IllegalArgumentException(String.format("%d is not a valid number of sub-steps", subSteps));
         }
+        this.scheduler = scheduler;
+        this.subSteps = subSteps;
+        this.rewindHistory = rewindHistory;
+        this.levels = levels;
         this.levelIndex = levelIndex;
-        currentLevel = level.get(levelIndex);
+        currentLevel = levels.get(levelIndex);
+        levels.prefetch(levelIndex + 1);
         this.totalScore = new ScoreObserver();
         currentLevel.addTotalObserver(this.totalScore);
+        resetRewindHistory();
+    }
+
+    /**
+     * @param saveChain The chain saves are made incremental with, or null to save full snapshots.
+     */
+    public void setSaveChain(SaveChain saveChain) {
+        this.saveChain = saveChain;
+    }
+
+    /**
+     * @param autosave The service every save is also written to file with in the background, or null to keep saves
+     *                 in memory only.
+     */
+    public void setAutosave(AutosaveService autosave) {
+        this.autosave = autosave;
+    }
+
+    /**
+     * @param resumeFromFile Whether loading with nothing saved in this process loads the file of the autosave
+     *                       service instead, which an earlier process may have written.
+     */
+    public void setResumeFromFile(boolean resumeFromFile) {
+        this.resumeFromFile = resumeFromFile;
     }
 
     public Level getCurrentLevel() {
@@ -40,12 +117,21 @@ public class GameEngineImpl implements GameEngine {
     //level preparation and transition
     public void startLevel() {
         levelIndex += 1;
-        if (levelIndex >= level.size()){
-            Platform.exit();
+        if (levelIndex >= levels.size()){
+            if (!finished) {
+                finished = true;
+                if (finishListener != null) {
+                    finishListener.run();
+                }
+            }
             return;
         }
-        currentLevel = level.get(levelIndex);
+        // the level that was played is built afresh if it is ever needed again
+        levels.discard(levelIndex - 1);
+        currentLevel = levels.get(levelIndex);
+        levels.prefetch(levelIndex + 1);
         currentLevel.addTotalObserver(totalScore);
+        resetRewindHistory();
         return;
     }
 
@@ -66,11 +152,64 @@ public class GameEngineImpl implements GameEngine {
     }
 
     public void tick() {
-        //transit the level if the current level is finished
-        if (currentLevel.isFinished()){
-            startLevel();
+        // controls are applied first, so the tick listener sees the state the tick starts from
+        inputQueue.drain();
+        if (tickListener != null) {
+            tickListener.run();
+        }
+        for (int subStep = 0; subStep < subSteps; ++subStep) {
+            //transit the level if the current level is finished
+            if (currentLevel.isFinished()){
+                startLevel();
+            }
+            currentLevel.update();
+        }
+        if (rewindHistory != null && !finished) {
+            rewindHistory.record(currentLevel);
         }
-        currentLevel.update();
+        if (autosave != null && !finished) {
+            autosave.onTick(currentLevel, levelIndex, levels.size(), totalScore.getValue());
+        }
+        inputQueue.completeTick();
+    }
+
+    @Override
+    public int advance(double elapsedMilli) {
+        int ticks = scheduler.advance(elapsedMilli);
+        for (int i = 0; i < ticks; ++i) {
+            tick();
+        }
+        return ticks;
+    }
+
+    @Override
+    public double getInterpolationAlpha() {
+        return scheduler.getAlpha();
+    }
+
+    @Override
+    public double getTickDurationMilli() {
+        return scheduler.getTickDurationMilli();
+    }
+
+    @Override
+    public InputQueue getInputQueue() {
+        return inputQueue;
+    }
+
+    @Override
+    public void setTickListener(Runnable listener) {
+        this.tickListener = listener;
+    }
+
+    @Override
+    public void setFinishListener(Runnable listener) {
+        this.finishListener = listener;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished;
     }
 
     public int getTotalScore() {
@@ -79,28 +218,88 @@ public class GameEngineImpl implements GameEngine {
 
     @Override
     public void createSave() {
-        this.save = currentLevel.createMomento();
-        this.savedLevelNumber = level.indexOf(currentLevel);
-        this.savedTotal = save.load().getTotal();
+        this.save = saveChain == null ? currentLevel.createMomento() : saveChain.save(currentLevel);
+        // once every level is finished the last one stays current
+        this.savedLevelNumber = Math.min(levelIndex, levels.size() - 1);
+        this.savedTotal = totalScore.getValue();
+        if (autosave != null) {
+            autosave.save(currentLevel, savedLevelNumber, levels.size(), savedTotal);
+        }
     }
 
     @Override
     public void load() {
-        List<Level> newLevels = new ArrayList<>();
-        for (int levelNum = 0; levelNum < level.size(); levelNum++){
-            if (levelNum == savedLevelNumber){
-                newLevels.add(save.load().copy());
-                continue;
-            }
-            else if(levelNum > savedLevelNumber){
-                newLevels.add(level_backup.get(levelNum));
-                continue;
+        if (save != null) {
+            resetLaterLevels(savedLevelNumber);
+            // the saved level may have been discarded since, but the save still holds it
+            levels.set(savedLevelNumber, save.load());
+            enterLoadedLevel(savedLevelNumber, savedTotal);
+        } else if (resumeFromFile && autosave != null && Files.exists(autosave.getPath())) {
+            // nothing was saved in this process, so pick up the save of an earlier one
+            try {
+                loadFile(SaveFile.read(autosave.getPath()));
+            } catch (IOException e) {
+                System.out.println(e);
             }
-            newLevels.add(level.get(levelNum));
         }
-        totalScore = savedTotal.copy();
-        level = new ArrayList<>(newLevels);
-        levelIndex = savedLevelNumber;
-        currentLevel = level.get(levelIndex);
+    }
+
+    private void loadFile(SaveFile file) throws IOException {
+        if (file.getFingerprint() != autosave.getFingerprint()) {
+            throw new IOException(String.format("%s was saved from another level configuration", autosave.getPath()));
+        }
+        if (file.getLevelCount() != levels.size() || file.getLevelIndex() < 0
+                || file.getLevelIndex() >= levels.size()
+                || file.getState().length != levels.get(file.getLevelIndex()).getStateLength()) {
+            throw new IOException("the save does not match the configured levels");
+        }
+        resetLaterLevels(file.getLevelIndex());
+        levels.get(file.getLevelIndex()).readState(file.getState());
+        enterLoadedLevel(file.getLevelIndex(), file.getTotalScore());
+    }
+
+    /**
+     * Puts every level after the provided one back to its initial state, by building it afresh when it is next
+     * needed.
+     */
+    private void resetLaterLevels(int loadedLevelNumber) {
+        for (int levelNum = loadedLevelNumber + 1; levelNum < levels.size(); levelNum++){
+            levels.discard(levelNum);
+        }
+    }
+
+    private void enterLoadedLevel(
+            int loadedLevelNumber,
+            int loadedTotal) {
+        totalScore.setValue(loadedTotal);
+        levelIndex = loadedLevelNumber;
+        currentLevel = levels.get(levelIndex);
+        levels.prefetch(levelIndex + 1);
+        currentLevel.addTotalObserver(totalScore);
+        finished = false;
+        resetRewindHistory();
+    }
+
+    @Override
+    public int rewind(int ticks) {
+        if (rewindHistory == null || finished) {
+            return 0;
+        }
+        int levelScore = getLevelScore();
+        int rewoundTicks = rewindHistory.rewind(currentLevel, ticks);
+        // the total only changes with the scores of the current level, so it goes back by as much as they do
+        totalScore.setValue(totalScore.getValue() - (levelScore - getLevelScore()));
+        return rewoundTicks;
+    }
+
+    private int getLevelScore() {
+        return currentLevel.getRed().getValue() + currentLevel.getGreen().getValue()
+                + currentLevel.getBlue().getValue();
+    }
+
+    private void resetRewindHistory() {
+        if (rewindHistory != null) {
+            rewindHistory.reset(currentLevel);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package ballboy.model;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queues controls, such as a move of the hero, to be applied at the start of the next tick.
+ * <p>
+ * Controls may be submitted from any thread without locks, and are stamped with the time they arrived. The engine
+ * drains the queue at the start of every tick, so a control always takes effect on a tick boundary, whenever within
+ * a tick it arrived and whichever thread the engine is simulated on. The time from a control arriving to the end of
+ * the tick that applied it is measured, which is how long input takes to reach the simulation; drawing it adds up to
+ * a display frame on top.
+ */
+public class InputQueue implements Executor {
+    private final Queue<Input> inputs = new ConcurrentLinkedQueue<>();
+    // arrival times of the inputs applied by the tick in progress
+    private long[] appliedArrivalNanos = new long[16];
+    private int appliedCount = 0;
+
+    private final AtomicLong appliedInputs = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private volatile long lastLatencyNanos = 0;
+
+    /**
+     * Queues a control for the start of the next tick. May be called from any thread.
+     *
+     * @param control The control, run on the thread the engine is simulated on.
+     */
+    @Override
+    public void execute(Runnable control) {
+        inputs.add(new Input(control, System.nanoTime()));
+    }
+
+    /**
+     * Applies the controls that arrived since the last drain, in the order they arrived. This must be called at the
+     * start of a tick on the simulation thread.
+     */
+    public void drain() {
+        Input input;
+        while ((input = inputs.poll()) != null) {
+            input.control.run();
+            if (appliedCount == appliedArrivalNanos.length) {
+                appliedArrivalNanos = Arrays.copyOf(appliedArrivalNanos, appliedCount * 2);
+            }
+            appliedArrivalNanos[appliedCount++] = input.arrivalNanos;
+        }
+    }
+
+    /**
+     * Measures the latency of the controls applied by the tick. This must be called at the end of the tick on the
+     * simulation thread.
+     */
+    public void completeTick() {
+        if (appliedCount == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (int i = 0; i < appliedCount; ++i) {
+            long latency = now - appliedArrivalNanos[i];
+            totalLatencyNanos.addAndGet(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            lastLatencyNanos = latency;
+        }
+        appliedInputs.addAndGet(appliedCount);
+        appliedCount = 0;
+    }
+
+    /**
+     * @return long The number of controls applied.
+     */
+    public long getAppliedInputs() {
+        return appliedInputs.get();
+    }
+
+    /**
+     * @return long The time from the last applied control arriving to the end of the tick that applied it, in
+     * nanoseconds.
+     */
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    /**
+     * @return long The longest time from a control arriving to the end of the tick that applied it, in nanoseconds.
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    /**
+     * @return double The mean time from a control arriving to the end of the tick that applied it, in nanoseconds,
+     * or 0 if no control was applied.
+     */
+    public double getMeanLatencyNanos() {
+        long applied = appliedInputs.get();
+        return applied == 0 ? 0.0 : (double) totalLatencyNanos.get() / applied;
+    }
+
+    private static class Input {
+        private final Runnable control;
+        private final long arrivalNanos;
+
+        private Input(
+                Runnable control,
+                long arrivalNanos) {
+            this.control = control;
+            this.arrivalNanos = arrivalNanos;
+        }
+    }
+}
@@ -3,7 +3,11 @@ package ballboy.model;
 import ballboy.model.entities.ControllableDynamicEntity;
 import ballboy.model.entities.DynamicEntity;
 import ballboy.model.entities.observer.Observer;
+import ballboy.model.entities.store.EntityStore;
 import ballboy.model.factories.EntityFactory;
+import ballboy.model.levels.HeroSnapshot;
+import ballboy.model.levels.LevelDelta;
+import ballboy.model.levels.LevelSnapshot;
 import ballboy.model.levels.PhysicsEngine;
 import ballboy.save.Momento;
 import javafx.scene.paint.Color;
@@ -80,6 +84,14 @@ public interface Level {
      */
     double getHeroY();
 
+    /**
+     * The state of the hero as of the current update. Behaviours should read the hero through this snapshot, as it
+     * does not change while entities behave.
+     *
+     * @return HeroSnapshot The hero snapshot of this level.
+     */
+    HeroSnapshot getHeroSnapshot();
+
     /**
      * Increase the height the bouncing hero can reach. This could be the vertical acceleration of the hero, unless
      * the current level has special behaviour.
@@ -190,11 +202,66 @@ public interface Level {
      */
     Entity getFinish();
 
+    /**
+     * @return EntityStore The store holding the state of every entity in this level.
+     */
+    EntityStore getEntityStore();
+
     /**
      * @return Momento create a momento which saves a copy of this level.
      */
     Momento createMomento();
 
+    /**
+     * Takes a copy-on-write snapshot of the state of this level.
+     *
+     * @return LevelSnapshot The snapshot.
+     */
+    LevelSnapshot snapshot();
+
+    /**
+     * Makes the current state the base of the next captureDelta.
+     */
+    void markDeltaBase();
+
+    /**
+     * Captures what changed since the last call to markDeltaBase or captureDelta, and makes the current state the
+     * base of the next one.
+     *
+     * @return LevelDelta The changes.
+     */
+    LevelDelta captureDelta();
+
+    /**
+     * Puts this level back to a snapshot followed by the deltas captured after it, in order.
+     *
+     * @param base   A snapshot taken from this level.
+     * @param deltas The deltas captured after the snapshot.
+     */
+    void restore(
+            LevelSnapshot base,
+            List<LevelDelta> deltas);
+
+    /**
+     * @return int The length of the state vector of this level, which does not change while the level is played.
+     */
+    int getStateLength();
+
+    /**
+     * Writes the complete simulation state of this level into a flat vector of raw bits, so that it can be compared
+     * and encoded without knowing the layout of the level.
+     *
+     * @param state A vector of at least getStateLength() words.
+     */
+    void writeState(long[] state);
+
+    /**
+     * Puts this level back to a state written by writeState on this level.
+     *
+     * @param state A vector written by writeState.
+     */
+    void readState(long[] state);
+
     /**
      * @return Level A deep copy of this instance.
      */
@@ -0,0 +1,147 @@
+package ballboy.model;
+
+import ballboy.model.entities.utilities.ImageCache;
+import ballboy.model.levels.LevelSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * The levels of a game, built on demand from immutable templates.
+ * <p>
+ * Only the levels that are asked for are built, and a level that is discarded is built afresh from its template the
+ * next time it is asked for, which is how levels are reset. A level can be prefetched on the executor, so that
+ * asking for it later does not build it on the calling thread. The images of a level are released from the
+ * ImageCache when it is discarded, so only the sprites of the levels in use stay cached. A discarded level can still
+ * come back, when a save that holds it is loaded or a template restores it in place, and it then reacquires its
+ * images.
+ * <p>
+ * Apart from the background builds, a sequence must only be used from the simulation thread.
+ */
+public class LevelSequence {
+    private final List<Supplier<Level>> templates;
+    private final Executor executor;
+    private final Level[] levels;
+    private final List<CompletableFuture<Level>> prefetches;
+
+    /**
+     * @param templates Builds a new level in its initial state for every index.
+     * @param executor  The executor levels are prefetched on, or null to build every level on the calling thread.
+     */
+    public LevelSequence(
+            List<Supplier<Level>> templates,
+            Executor executor) {
+        this.templates = new ArrayList<>(templates);
+        this.executor = executor;
+        this.levels = new Level[templates.size()];
+        this.prefetches = new ArrayList<>(templates.size());
+        for (int i = 0; i < templates.size(); ++i) {
+            prefetches.add(null);
+        }
+    }
+
+    /**
+     * A sequence over levels that are already built. Their initial state is kept as a copy-on-write snapshot, which
+     * they are restored to in place when they are built again after being discarded.
+     *
+     * @param levels The levels, in their initial state.
+     * @return LevelSequence The sequence.
+     */
+    public static LevelSequence of(List<Level> levels) {
+        List<Supplier<Level>> templates = new ArrayList<>(levels.size());
+        for (Level level : levels) {
+            LevelSnapshot initialState = level.snapshot();
+            templates.add(() -> {
+                initialState.restore();
+                return level;
+            });
+        }
+        return new LevelSequence(templates, null);
+    }
+
+    /**
+     * @return int The number of levels.
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    /**
+     * Returns the level, building it if it has not been built since it was last discarded. A level that is being
+     * prefetched is waited for instead.
+     *
+     * @param index The index of the level.
+     * @return Level The level.
+     */
+    public Level get(int index) {
+        if (levels[index] == null) {
+            CompletableFuture<Level> prefetch = prefetches.get(index);
+            prefetches.set(index, null);
+            if (prefetch == null) {
+                levels[index] = templates.get(index).get();
+            } else {
+                try {
+                    levels[index] = prefetch.join();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw e;
+                }
+            }
+            ImageCache.getShared().reacquire(levels[index]);
+        }
+        return levels[index];
+    }
+
+    /**
+     * Starts building the level in the background, if it exists and has neither been built nor started yet.
+     *
+     * @param index The index of the level.
+     */
+    public void prefetch(int index) {
+        if (executor == null || index < 0 || index >= levels.length || levels[index] != null
+                || prefetches.get(index) != null) {
+            return;
+        }
+        prefetches.set(index, CompletableFuture.supplyAsync(templates.get(index), executor));
+    }
+
+    /**
+     * Puts a level in place of the built one, such as a level that a save was restored into.
+     *
+     * @param index The index of the level.
+     * @param level The level.
+     */
+    public void set(
+            int index,
+            Level level) {
+        if (levels[index] != level) {
+            discard(index);
+            ImageCache.getShared().reacquire(level);
+        }
+        levels[index] = level;
+    }
+
+    /**
+     * Drops the level, so that it is built afresh from its template the next time it is asked for. A prefetch in
+     * progress is dropped too.
+     *
+     * @param index The index of the level.
+     */
+    public void discard(int index) {
+        CompletableFuture<Level> prefetch = prefetches.get(index);
+        if (prefetch != null) {
+            prefetch.thenAccept(ImageCache.getShared()::release);
+        }
+        if (levels[index] != null) {
+            ImageCache.getShared().release(levels[index]);
+        }
+        prefetches.set(index, null);
+        levels[index] = null;
+    }
+}
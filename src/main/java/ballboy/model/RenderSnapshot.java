@@ -0,0 +1,247 @@
+package ballboy.model;
+
+import javafx.scene.image.Image;
+
+import java.util.Arrays;
+
+/**
+ * Everything the view draws for one tick: the ID, position, size, image and layer of every entity of the current
+ * level, where each entity was before the tick, where the hero is, and the scores.
+ * <p>
+ * Snapshots are filled in by a RenderSnapshotPublisher and handed to the view through a TripleBuffer, so the view
+ * never reads the level itself and the level can be simulated on another thread. A snapshot is not changed while the
+ * view holds it. Entities are indexed from 0 to getSize() - 1, in the order of the level.
+ */
+public class RenderSnapshot {
+    private int size = 0;
+    private int[] ids = new int[0];
+    private long[] versions = new long[0];
+    private Image[] images = new Image[0];
+    private Entity.Layer[] layers = new Entity.Layer[0];
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private double[] previousXs = new double[0];
+    private double[] previousYs = new double[0];
+    private double[] widths = new double[0];
+    private double[] heights = new double[0];
+
+    private long levelSerial = -1;
+    private double levelWidth;
+    private double levelHeight;
+    private double heroX;
+    private double heroY;
+    private double heroPreviousX;
+    private double heroPreviousY;
+    private double heroWidth;
+    private double heroHeight;
+    private int totalScore;
+    private int redScore;
+    private int greenScore;
+    private int blueScore;
+    private long publishedNanos;
+
+    /**
+     * @return int The number of entities.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return int The ID of the entity at the index.
+     */
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * @return long The version of the entity at the index, see Entity.getVersion().
+     */
+    public long getVersion(int index) {
+        return versions[index];
+    }
+
+    public Image getImage(int index) {
+        return images[index];
+    }
+
+    public Entity.Layer getLayer(int index) {
+        return layers[index];
+    }
+
+    public double getX(int index) {
+        return xs[index];
+    }
+
+    public double getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * @return double Where the entity at the index was before the tick, or where it is if it only just appeared.
+     */
+    public double getPreviousX(int index) {
+        return previousXs[index];
+    }
+
+    /**
+     * @return double Where the entity at the index was before the tick, or where it is if it only just appeared.
+     */
+    public double getPreviousY(int index) {
+        return previousYs[index];
+    }
+
+    public double getWidth(int index) {
+        return widths[index];
+    }
+
+    public double getHeight(int index) {
+        return heights[index];
+    }
+
+    /**
+     * @return long A number that changes whenever the current level changes, as entity IDs and versions are only
+     * unique within a level.
+     */
+    public long getLevelSerial() {
+        return levelSerial;
+    }
+
+    public double getLevelWidth() {
+        return levelWidth;
+    }
+
+    public double getLevelHeight() {
+        return levelHeight;
+    }
+
+    public double getHeroX() {
+        return heroX;
+    }
+
+    public double getHeroY() {
+        return heroY;
+    }
+
+    public double getHeroPreviousX() {
+        return heroPreviousX;
+    }
+
+    public double getHeroPreviousY() {
+        return heroPreviousY;
+    }
+
+    public double getHeroWidth() {
+        return heroWidth;
+    }
+
+    public double getHeroHeight() {
+        return heroHeight;
+    }
+
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    public int getRedScore() {
+        return redScore;
+    }
+
+    public int getGreenScore() {
+        return greenScore;
+    }
+
+    public int getBlueScore() {
+        return blueScore;
+    }
+
+    /**
+     * @return long The System.nanoTime() at which the snapshot was published.
+     */
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+
+    void resize(int size) {
+        if (size > ids.length) {
+            int capacity = Math.max(size, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            images = Arrays.copyOf(images, capacity);
+            layers = Arrays.copyOf(layers, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            previousXs = Arrays.copyOf(previousXs, capacity);
+            previousYs = Arrays.copyOf(previousYs, capacity);
+            widths = Arrays.copyOf(widths, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+        } else {
+            // drop references to the images of entities that are gone
+            Arrays.fill(images, size, this.size, null);
+        }
+        this.size = size;
+    }
+
+    void setEntity(
+            int index,
+            int id,
+            long version,
+            Image image,
+            Entity.Layer layer,
+            double x,
+            double y,
+            double previousX,
+            double previousY,
+            double width,
+            double height) {
+        ids[index] = id;
+        versions[index] = version;
+        images[index] = image;
+        layers[index] = layer;
+        xs[index] = x;
+        ys[index] = y;
+        previousXs[index] = previousX;
+        previousYs[index] = previousY;
+        widths[index] = width;
+        heights[index] = height;
+    }
+
+    void setLevel(
+            long levelSerial,
+            double levelWidth,
+            double levelHeight) {
+        this.levelSerial = levelSerial;
+        this.levelWidth = levelWidth;
+        this.levelHeight = levelHeight;
+    }
+
+    void setHero(
+            double heroX,
+            double heroY,
+            double heroPreviousX,
+            double heroPreviousY,
+            double heroWidth,
+            double heroHeight) {
+        this.heroX = heroX;
+        this.heroY = heroY;
+        this.heroPreviousX = heroPreviousX;
+        this.heroPreviousY = heroPreviousY;
+        this.heroWidth = heroWidth;
+        this.heroHeight = heroHeight;
+    }
+
+    void setScores(
+            int totalScore,
+            int redScore,
+            int greenScore,
+            int blueScore) {
+        this.totalScore = totalScore;
+        this.redScore = redScore;
+        this.greenScore = greenScore;
+        this.blueScore = blueScore;
+    }
+
+    void setPublishedNanos(long publishedNanos) {
+        this.publishedNanos = publishedNanos;
+    }
+}
@@ -0,0 +1,144 @@
+package ballboy.model;
+
+import ballboy.model.entities.utilities.Vector2D;
+import javafx.scene.image.Image;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Publishes a RenderSnapshot of a game engine after its ticks, for the view to draw from.
+ * <p>
+ * beforeTick() must be the tick listener of the engine, so that the positions before the last tick are known for
+ * interpolation. An entity is only read when its version moved; the state of the others is copied from the last
+ * time they were read. All methods but getLatest() must be called from the thread the engine is simulated on, which
+ * may be another thread than the one calling getLatest().
+ */
+public class RenderSnapshotPublisher {
+    private final GameEngine engine;
+    private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
+
+    private Level level;
+    private long levelSerial = -1;
+    // the last state read from each entity, indexed by entity ID
+    private long[] versions = new long[0];
+    private Image[] images = new Image[0];
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private double[] widths = new double[0];
+    private double[] heights = new double[0];
+    // the state before the last tick, valid when tickedSerial is the current level serial and for entities that
+    // had been read by then
+    private long[] previousVersions = new long[0];
+    private double[] previousXs = new double[0];
+    private double[] previousYs = new double[0];
+    private double heroPreviousX;
+    private double heroPreviousY;
+    private long tickedSerial = -1;
+
+    /**
+     * Publishes the current state of the engine, so that there is a snapshot to draw before the first tick.
+     */
+    public RenderSnapshotPublisher(GameEngine engine) {
+        this.engine = engine;
+        publish();
+    }
+
+    /**
+     * Records the state before a tick.
+     */
+    public void beforeTick() {
+        refresh();
+        System.arraycopy(versions, 0, previousVersions, 0, versions.length);
+        System.arraycopy(xs, 0, previousXs, 0, xs.length);
+        System.arraycopy(ys, 0, previousYs, 0, ys.length);
+        heroPreviousX = level.getHeroX();
+        heroPreviousY = level.getHeroY();
+        tickedSerial = levelSerial;
+    }
+
+    /**
+     * Publishes the current state of the engine. When there was no tick since the last publish, as for the first one,
+     * entities are not interpolated from anywhere.
+     */
+    public void publish() {
+        refresh();
+        boolean ticked = tickedSerial == levelSerial;
+        RenderSnapshot snapshot = snapshots.getBack();
+        List<Entity> entities = level.getEntities();
+        snapshot.resize(entities.size());
+        for (int i = 0; i < entities.size(); ++i) {
+            Entity entity = entities.get(i);
+            int id = entity.getId();
+            boolean interpolated = ticked && previousVersions[id] != -1;
+            snapshot.setEntity(i, id, versions[id], images[id], entity.getLayer(), xs[id], ys[id],
+                    interpolated ? previousXs[id] : xs[id], interpolated ? previousYs[id] : ys[id],
+                    widths[id], heights[id]);
+        }
+        snapshot.setLevel(levelSerial, level.getLevelWidth(), level.getLevelHeight());
+        snapshot.setHero(level.getHeroX(), level.getHeroY(),
+                ticked ? heroPreviousX : level.getHeroX(), ticked ? heroPreviousY : level.getHeroY(),
+                level.getHeroWidth(), level.getHeroHeight());
+        snapshot.setScores(engine.getTotalScore(), level.getRed().getValue(), level.getGreen().getValue(),
+                level.getBlue().getValue());
+        snapshot.setPublishedNanos(System.nanoTime());
+        snapshots.publish();
+        tickedSerial = -1;
+    }
+
+    /**
+     * May be called from another thread than the engine is simulated on.
+     *
+     * @return RenderSnapshot The latest published snapshot, which is not changed until the next call.
+     */
+    public RenderSnapshot getLatest() {
+        return snapshots.getFront();
+    }
+
+    /**
+     * Reads the entities of the current level whose version moved since they were last read.
+     */
+    private void refresh() {
+        Level current = engine.getCurrentLevel();
+        if (current != level) {
+            level = current;
+            ++levelSerial;
+            Arrays.fill(versions, -1);
+        }
+        List<Entity> entities = level.getEntities();
+        for (int i = 0; i < entities.size(); ++i) {
+            Entity entity = entities.get(i);
+            int id = entity.getId();
+            if (id >= versions.length) {
+                grow(id + 1);
+            }
+            long version = entity.getVersion();
+            if (versions[id] == version) {
+                continue;
+            }
+            versions[id] = version;
+            images[id] = entity.getImage();
+            Vector2D position = entity.getPosition();
+            xs[id] = position.getX();
+            ys[id] = position.getY();
+            widths[id] = entity.getWidth();
+            heights[id] = entity.getHeight();
+        }
+    }
+
+    private void grow(int size) {
+        int capacity = Math.max(size, versions.length * 2);
+        int oldCapacity = versions.length;
+        versions = Arrays.copyOf(versions, capacity);
+        Arrays.fill(versions, oldCapacity, capacity, -1);
+        images = Arrays.copyOf(images, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        previousVersions = Arrays.copyOf(previousVersions, capacity);
+        Arrays.fill(previousVersions, oldCapacity, capacity, -1);
+        previousXs = Arrays.copyOf(previousXs, capacity);
+        previousYs = Arrays.copyOf(previousYs, capacity);
+    }
+}
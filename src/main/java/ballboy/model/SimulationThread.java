@@ -0,0 +1,71 @@
+package ballboy.model;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a game engine on a dedicated thread, so that simulation and rendering run on separate cores.
+ * <p>
+ * The engine is advanced by the real time elapsed, and a RenderSnapshot is published after every advance that ran a
+ * tick. Between ticks the thread sleeps until the next tick is due. Once started, the engine and its levels must only
+ * be used from this thread: controls from other threads are submitted to the InputQueue of the engine, which applies
+ * them at the start of the next tick. Images of entities are decoded on this thread as well, when they are first
+ * published.
+ */
+public class SimulationThread {
+    private final GameEngine engine;
+    private final RenderSnapshotPublisher publisher;
+    private final Thread thread;
+    private volatile boolean running = false;
+
+    /**
+     * Takes over the tick listener of the engine.
+     *
+     * @param engine    The engine to simulate.
+     * @param publisher The publisher of the engine, which the view reads its snapshots from.
+     */
+    public SimulationThread(
+            GameEngine engine,
+            RenderSnapshotPublisher publisher) {
+        this.engine = engine;
+        this.publisher = publisher;
+        engine.setTickListener(publisher::beforeTick);
+        // a daemon, so that a simulation that is not stopped never keeps the game from exiting
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the simulation. It can only be started once.
+     */
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the simulation and waits for the tick in progress to finish, so that the engine can be used from the
+     * calling thread afterwards.
+     *
+     * @throws InterruptedException Thrown when the calling thread is interrupted while waiting.
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    private void run() {
+        long lastNanos = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            int ticks = engine.advance((now - lastNanos) / 1e6);
+            lastNanos = now;
+            if (ticks > 0) {
+                publisher.publish();
+            }
+
+            double untilNextTickMilli = engine.getTickDurationMilli() * (1 - engine.getInterpolationAlpha());
+            LockSupport.parkNanos((long) (untilNextTickMilli * 1e6));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ballboy.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands values from one writer thread to one reader thread without locks.
+ * <p>
+ * There are three buffers: the writer fills the back buffer while the reader holds the front buffer, and the third
+ * holds the latest published value. Publishing swaps the back buffer with the latest one, and the reader swaps its
+ * front buffer for the latest one when there is a newer one. Neither side ever waits for the other, and a value is
+ * not written to while the reader holds it. Values the reader did not get to in time are overwritten.
+ *
+ * @param <T> The type of the buffers, which are reused.
+ */
+public class TripleBuffer<T> {
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final Object[] buffers;
+    // the index of the latest buffer, with FRESH set until the reader has taken it
+    private final AtomicInteger latest = new AtomicInteger(2);
+    private int back = 0;
+    private int front = 1;
+
+    /**
+     * @param factory Creates each of the three buffers.
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        buffers = new Object[]{factory.get(), factory.get(), factory.get()};
+    }
+
+    /**
+     * Only to be called from the writer thread.
+     *
+     * @return T The buffer to fill in before the next publish.
+     */
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Makes the back buffer the latest value. Only to be called from the writer thread.
+     */
+    public void publish() {
+        back = latest.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Takes the latest published value if it is newer than the one held. Only to be called from the reader thread.
+     *
+     * @return T The latest published value, which stays unchanged until the next call. Before anything is published
+     * this is the buffer as it was created.
+     */
+    @SuppressWarnings("unchecked")
+    public T getFront() {
+        if ((latest.get() & FRESH) != 0) {
+            front = latest.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) buffers[front];
+    }
+}
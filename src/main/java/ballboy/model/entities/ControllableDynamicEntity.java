@@ -95,10 +95,10 @@ public class ControllableDynamicEntity<T extends DynamicEntity> extends DynamicE
         }
 
         afterNextBounce = Optional.of(() -> {
-            double bounceHeight = ProjectileKinematicsUtil.getDeltaToMaxHeight(-this.entity.getVelocity().getY(),
+            double bounceHeight = ProjectileKinematicsUtil.getDeltaToMaxHeight(-this.entity.getVelocityY(),
                     -gravity);
             double yVelCart = ProjectileKinematicsUtil.getCurrentVelocityForMaxHeight(bounceHeight * 0.5, -gravity);
-            this.entity.setVelocity(this.entity.getVelocity().setY(-yVelCart));
+            this.entity.setVelocity(this.entity.getVelocityX(), -yVelCart);
         });
 
         return true;
@@ -152,16 +152,43 @@ public class ControllableDynamicEntity<T extends DynamicEntity> extends DynamicE
         return this.entity.getPositionBeforeLastUpdate();
     }
 
+    @Override
+    public double getPositionBeforeLastUpdateX() {
+        return this.entity.getPositionBeforeLastUpdateX();
+    }
+
+    @Override
+    public double getPositionBeforeLastUpdateY() {
+        return this.entity.getPositionBeforeLastUpdateY();
+    }
+
     @Override
     public Vector2D getVelocity() {
         return entity.getVelocity();
     }
 
+    @Override
+    public double getVelocityX() {
+        return entity.getVelocityX();
+    }
+
+    @Override
+    public double getVelocityY() {
+        return entity.getVelocityY();
+    }
+
     @Override
     public void setVelocity(Vector2D vel) {
         entity.setVelocity(vel);
     }
 
+    @Override
+    public void setVelocity(
+            double x,
+            double y) {
+        entity.setVelocity(x, y);
+    }
+
     @Override
     public double getHorizontalAcceleration() {
         return entity.getHorizontalAcceleration();
@@ -182,8 +209,25 @@ public class ControllableDynamicEntity<T extends DynamicEntity> extends DynamicE
             double durationNano,
             double levelGravity) {
         entity.update(durationNano, levelGravity);
+        applyControls();
+    }
 
-        if (this.entity.getVelocity().getY() < 0 && afterNextBounce.isPresent()) {
+    /**
+     * Applies the wrapped entity behaviour and enforces velocity limits.
+     *
+     * @param durationMilli The duration the kinematic state was stepped forward by.
+     */
+    @Override
+    public void behave(double durationMilli) {
+        entity.behave(durationMilli);
+        applyControls();
+    }
+
+    /**
+     * Runs any pending control input that waits on a bounce, then enforces velocity limits.
+     */
+    private void applyControls() {
+        if (this.entity.getVelocityY() < 0 && afterNextBounce.isPresent()) {
             afterNextBounce.get().run();
             afterNextBounce = Optional.empty();
         }
@@ -218,16 +262,43 @@ public class ControllableDynamicEntity<T extends DynamicEntity> extends DynamicE
         return entity.getImage();
     }
 
+    @Override
+    public int getId() {
+        return entity.getId();
+    }
+
+    @Override
+    public long getVersion() {
+        return entity.getVersion();
+    }
+
     @Override
     public Vector2D getPosition() {
         return entity.getPosition();
     }
 
+    @Override
+    public double getPositionX() {
+        return entity.getPositionX();
+    }
+
+    @Override
+    public double getPositionY() {
+        return entity.getPositionY();
+    }
+
     @Override
     public void setPosition(Vector2D pos) {
         entity.setPosition(pos);
     }
 
+    @Override
+    public void setPosition(
+            double x,
+            double y) {
+        entity.setPosition(x, y);
+    }
+
     @Override
     public double getHeight() {
         return entity.getHeight();
@@ -253,11 +324,10 @@ public class ControllableDynamicEntity<T extends DynamicEntity> extends DynamicE
      * of the wrapped entity is set to 0.
      */
     private void enforceHorizontalVelocityLimit() {
-        double velocityX = entity.getVelocity().getX();
+        double velocityX = entity.getVelocityX();
 
         if (Math.abs(velocityX) > maxHorizontalVelocity) {
-            entity.setVelocity(
-                    entity.getVelocity().setX(velocityX < 0 ? -maxHorizontalVelocity : maxHorizontalVelocity));
+            entity.setVelocity(velocityX < 0 ? -maxHorizontalVelocity : maxHorizontalVelocity, entity.getVelocityY());
 
             double accX = entity.getHorizontalAcceleration();
             if (velocityX < 0 && accX < 0 || velocityX > 0 && accX > 0) {
@@ -27,21 +27,71 @@ public abstract class DynamicEntity implements Entity {
      */
     public abstract void setPosition(Vector2D pos);
 
+    /**
+     * Allocation free variant of {@link #setPosition(Vector2D)}.
+     *
+     * @param x The new left of the entity.
+     * @param y The new top of the entity.
+     */
+    public abstract void setPosition(
+            double x,
+            double y);
+
+    /**
+     * @return double The horizontal component of the current top left anchor position.
+     */
+    public abstract double getPositionX();
+
+    /**
+     * @return double The vertical component of the current top left anchor position.
+     */
+    public abstract double getPositionY();
+
     /**
      * @return Vector2 The previous top left anchor position prior to the last update.
      */
     public abstract Vector2D getPositionBeforeLastUpdate();
 
+    /**
+     * @return double The horizontal component of the top left anchor position prior to the last update.
+     */
+    public abstract double getPositionBeforeLastUpdateX();
+
+    /**
+     * @return double The vertical component of the top left anchor position prior to the last update.
+     */
+    public abstract double getPositionBeforeLastUpdateY();
+
     /**
      * @return Vector2 The current velocity.
      */
     public abstract Vector2D getVelocity();
 
+    /**
+     * @return double The horizontal component of the current velocity.
+     */
+    public abstract double getVelocityX();
+
+    /**
+     * @return double The vertical component of the current velocity.
+     */
+    public abstract double getVelocityY();
+
     /**
      * @param vel The new velocity.
      */
     public abstract void setVelocity(Vector2D vel);
 
+    /**
+     * Allocation free variant of {@link #setVelocity(Vector2D)}.
+     *
+     * @param x The new horizontal velocity.
+     * @param y The new vertical velocity.
+     */
+    public abstract void setVelocity(
+            double x,
+            double y);
+
     /**
      * @return double The current entity's horizontal acceleration relative to ground.
      */
@@ -62,6 +112,14 @@ public abstract class DynamicEntity implements Entity {
             double durationMilli,
             double levelGravity);
 
+    /**
+     * Applies the entity behaviour after its kinematic state was stepped forward. This is the remainder of
+     * {@link #update(double, double)}, used when the kinematic state is stepped in bulk by an EntityStore.
+     *
+     * @param durationMilli The time (positive) the kinematic state was incremented by.
+     */
+    public abstract void behave(double durationMilli);
+
     public abstract void addObserver(Observer observer);
 
     public abstract void updateObservers();
@@ -7,6 +7,7 @@ import ballboy.model.entities.collision.CollisionStrategy;
 import ballboy.model.entities.observer.Observer;
 import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
 import ballboy.model.entities.utilities.KinematicState;
+import ballboy.model.entities.utilities.LazyImage;
 import ballboy.model.entities.utilities.Vector2D;
 import javafx.scene.image.Image;
 import org.json.simple.JSONObject;
@@ -15,24 +16,30 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class DynamicEntityImpl extends DynamicEntity {
+    private final int id;
     private final CollisionStrategy collisionStrategy;
     private final BehaviourStrategy behaviourStrategy;
     private final AxisAlignedBoundingBox volume;
     private final Layer layer;
-    private final Image image;
+    private final LazyImage image;
     private final KinematicState kinematicState;
     private final JSONObject config;
     private List<Observer> observers = new ArrayList<>();
 
+    /**
+     * @param id The ID of the entity, see EntityStore.nextEntityId().
+     */
     public DynamicEntityImpl(
+            int id,
             KinematicState kinematicState,
             AxisAlignedBoundingBox volume,
             Layer layer,
-            Image image,
+            LazyImage image,
             CollisionStrategy collisionStrategy,
             BehaviourStrategy behaviourStrategy,
             JSONObject config
     ) {
+        this.id = id;
         this.kinematicState = kinematicState;
         this.volume = volume;
         this.layer = layer;
@@ -44,7 +51,18 @@ public class DynamicEntityImpl extends DynamicEntity {
 
     @Override
     public Image getImage() {
-        return this.image;
+        return image == null ? null : image.get();
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public long getVersion() {
+        // the image is fixed, and the volume is moved with the entity
+        return volume.getVersion();
     }
 
     @Override
@@ -52,26 +70,70 @@ public class DynamicEntityImpl extends DynamicEntity {
         return kinematicState.getPosition();
     }
 
+    @Override
+    public double getPositionX() {
+        return kinematicState.getPositionX();
+    }
+
+    @Override
+    public double getPositionY() {
+        return kinematicState.getPositionY();
+    }
+
     @Override
     public void setPosition(Vector2D pos) {
         this.kinematicState.setPosition(pos);
     }
 
+    @Override
+    public void setPosition(
+            double x,
+            double y) {
+        this.kinematicState.setPosition(x, y);
+    }
+
     @Override
     public Vector2D getPositionBeforeLastUpdate() {
         return this.kinematicState.getPreviousPosition();
     }
 
+    @Override
+    public double getPositionBeforeLastUpdateX() {
+        return this.kinematicState.getPreviousPositionX();
+    }
+
+    @Override
+    public double getPositionBeforeLastUpdateY() {
+        return this.kinematicState.getPreviousPositionY();
+    }
+
     @Override
     public Vector2D getVelocity() {
         return this.kinematicState.getVelocity();
     }
 
+    @Override
+    public double getVelocityX() {
+        return this.kinematicState.getVelocityX();
+    }
+
+    @Override
+    public double getVelocityY() {
+        return this.kinematicState.getVelocityY();
+    }
+
     @Override
     public void setVelocity(Vector2D vel) {
         this.kinematicState.setVelocity(vel);
     }
 
+    @Override
+    public void setVelocity(
+            double x,
+            double y) {
+        this.kinematicState.setVelocity(x, y);
+    }
+
     @Override
     public double getHorizontalAcceleration() {
         return this.kinematicState.getHorizontalAcceleration();
@@ -117,8 +179,13 @@ public class DynamicEntityImpl extends DynamicEntity {
             double milliSeconds,
             double levelGravity) {
         kinematicState.update(milliSeconds, levelGravity);
+        behave(milliSeconds);
+    }
+
+    @Override
+    public void behave(double milliSeconds) {
         behaviourStrategy.behave(this, milliSeconds);
-        this.volume.setTopLeft(this.kinematicState.getPosition());
+        this.volume.setTopLeft(this.kinematicState.getPositionX(), this.kinematicState.getPositionY());
     }
 
     @Override
@@ -139,6 +206,6 @@ public class DynamicEntityImpl extends DynamicEntity {
 
     @Override
     public Entity copy(Level level) {
-        return new DynamicEntityImpl(kinematicState.copy(), volume.copy(), layer, image, collisionStrategy.copy(level), behaviourStrategy.copy(level), config);
+        return new DynamicEntityImpl(id, kinematicState.copy(level), volume.copy(level), layer, image, collisionStrategy.copy(level), behaviourStrategy.copy(level), config);
     }
 }
@@ -4,6 +4,7 @@ import ballboy.model.Entity;
 import ballboy.model.Level;
 import ballboy.model.entities.observer.Observer;
 import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
+import ballboy.model.entities.utilities.LazyImage;
 import ballboy.model.entities.utilities.Vector2D;
 import javafx.scene.image.Image;
 import org.json.simple.JSONObject;
@@ -15,16 +16,22 @@ import java.util.List;
  * A static entity.
  */
 public class StaticEntityImpl extends StaticEntity {
+    private final int id;
     private final AxisAlignedBoundingBox volume;
     private final Entity.Layer layer;
-    private final Image image;
+    private final LazyImage image;
     private List<Observer> observers = new ArrayList<>();
 
+    /**
+     * @param id The ID of the entity, see EntityStore.nextEntityId().
+     */
     public StaticEntityImpl(
+            int id,
             AxisAlignedBoundingBox volume,
             Entity.Layer layer,
-            Image image
+            LazyImage image
     ) {
+        this.id = id;
         this.volume = volume;
         this.layer = layer;
         this.image = image;
@@ -32,7 +39,18 @@ public class StaticEntityImpl extends StaticEntity {
 
     @Override
     public Image getImage() {
-        return this.image;
+        return image == null ? null : image.get();
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public long getVersion() {
+        // the image is fixed, and the position and size are those of the volume
+        return volume.getVersion();
     }
 
     @Override
@@ -79,7 +97,7 @@ public class StaticEntityImpl extends StaticEntity {
 
     @Override
     public Entity copy(Level level) {
-        return new StaticEntityImpl(volume.copy(), layer, image);
+        return new StaticEntityImpl(id, volume.copy(level), layer, image);
     }
 
 }
@@ -22,15 +22,14 @@ public class AggressiveEnemyBehaviourStrategy implements BehaviourStrategy {
     public void behave(
             DynamicEntity entity,
             double frameDurationMilli) {
-        if (entity.getPosition().isLeftOf(level.getHeroX())) {
+        if (entity.getPositionX() < level.getHeroSnapshot().getX()) {
             entity.setHorizontalAcceleration(HORIZONTAL_ACCELERATION);
         } else {
             entity.setHorizontalAcceleration(-HORIZONTAL_ACCELERATION);
         }
-        double xVel = entity.getVelocity().getX();
+        double xVel = entity.getVelocityX();
         if (Math.abs(xVel) > MAX_HORIZONTAL_VELOCITY) {
-            entity.setVelocity(
-                    entity.getVelocity().setX(xVel < 0 ? -MAX_HORIZONTAL_VELOCITY : MAX_HORIZONTAL_VELOCITY));
+            entity.setVelocity(xVel < 0 ? -MAX_HORIZONTAL_VELOCITY : MAX_HORIZONTAL_VELOCITY, entity.getVelocityY());
             entity.setHorizontalAcceleration(0);
         }
     }
@@ -12,8 +12,8 @@ public class FloatingCloudBehaviourStrategy implements BehaviourStrategy {
     public void behave(
             DynamicEntity cloud,
             double frameDurationMilli) {
-        cloud.setPosition(cloud.getPosition().setY(cloud.getPositionBeforeLastUpdate().getY()));
-        cloud.setVelocity(cloud.getVelocity().setY(0));
+        cloud.setPosition(cloud.getPositionX(), cloud.getPositionBeforeLastUpdateY());
+        cloud.setVelocity(cloud.getVelocityX(), 0);
     }
 
     @Override
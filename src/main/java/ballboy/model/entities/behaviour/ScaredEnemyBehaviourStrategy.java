@@ -23,20 +23,21 @@ public class ScaredEnemyBehaviourStrategy implements BehaviourStrategy {
     public void behave(
             DynamicEntity entity,
             double frameDurationMilli) {
-        double distanceBetweenEntityAndHero = Math.abs(level.getHeroX() - entity.getPosition().getX());
+        double heroX = level.getHeroSnapshot().getX();
+        double distanceBetweenEntityAndHero = Math.abs(heroX - entity.getPositionX());
 
         /*
          If distance is below the threshold, actively accelerate away until it is not.
          */
         if (distanceBetweenEntityAndHero < DISTANCE_THRESHOLD) {
-            if (entity.getPosition().isRightOf(level.getHeroX())) {
+            if (entity.getPositionX() > heroX) {
                 entity.setHorizontalAcceleration(HORIZONTAL_ACCELERATION);
             } else {
                 entity.setHorizontalAcceleration(-HORIZONTAL_ACCELERATION);
             }
-            double xVel = entity.getVelocity().getX();
+            double xVel = entity.getVelocityX();
             if (Math.abs(xVel) > MAX_HOR_VELOCITY) {
-                entity.setVelocity(entity.getVelocity().setX(xVel < 0 ? -MAX_HOR_VELOCITY : MAX_HOR_VELOCITY));
+                entity.setVelocity(xVel < 0 ? -MAX_HOR_VELOCITY : MAX_HOR_VELOCITY, entity.getVelocityY());
                 entity.setHorizontalAcceleration(0);
             }
         } else {
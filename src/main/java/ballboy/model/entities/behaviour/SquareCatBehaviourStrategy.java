@@ -2,7 +2,7 @@ package ballboy.model.entities.behaviour;
 
 import ballboy.model.Level;
 import ballboy.model.entities.DynamicEntity;
-import ballboy.model.entities.utilities.Vector2D;
+import ballboy.model.levels.HeroSnapshot;
 
 /**
  * An aggressive strategy that makes the entity follow the ballboy.
@@ -23,19 +23,18 @@ public class SquareCatBehaviourStrategy implements BehaviourStrategy {
     public void behave(
             DynamicEntity entity,
             double frameDurationMilli) {
-        Vector2D lastPosition_cat = entity.getPositionBeforeLastUpdate();
-        double newX = lastPosition_cat.getX() + level.getHeroX();
-        double newY = lastPosition_cat.getY() + level.getHeroY() - 50.0;
-        Vector2D newPosition = new Vector2D(newX,newY);
-        entity.setPosition(newPosition);
-        if (entity.getPosition().isLeftOf((level.getHeroX() + level.getHeroWidth() + 40.0)) && entity.getPosition().isAbove((level.getHeroY() - 40.0))) {
-            entity.setVelocity(new Vector2D(15.0,0.0));
-        } else if (entity.getPosition().isRightOf((level.getHeroX() + level.getHeroWidth() + 40.0)) && entity.getPosition().isAbove((level.getHeroY() + level.getHeroHeight()+ 40.0))){
-            entity.setVelocity(new Vector2D(0.0,15.0));
-        } else if (entity.getPosition().isRightOf((level.getHeroX() - 50.0)) && entity.getPosition().isBelow((level.getHeroY() + level.getHeroHeight()+ 40.0))){
-            entity.setVelocity(new Vector2D(-15.0,0.0));
-        } else if (entity.getPosition().isLeftOf((level.getHeroX() - 50.0)) && entity.getPosition().isBelow((level.getHeroY() + level.getHeroHeight()+ 40.0))){
-            entity.setVelocity(new Vector2D(0.0,-15.0));
+        HeroSnapshot hero = level.getHeroSnapshot();
+        double newX = entity.getPositionBeforeLastUpdateX() + hero.getX();
+        double newY = entity.getPositionBeforeLastUpdateY() + hero.getY() - 50.0;
+        entity.setPosition(newX, newY);
+        if (entity.getPositionX() < (hero.getX() + hero.getWidth() + 40.0) && entity.getPositionY() < (hero.getY() - 40.0)) {
+            entity.setVelocity(15.0, 0.0);
+        } else if (entity.getPositionX() > (hero.getX() + hero.getWidth() + 40.0) && entity.getPositionY() < (hero.getY() + hero.getHeight()+ 40.0)){
+            entity.setVelocity(0.0, 15.0);
+        } else if (entity.getPositionX() > (hero.getX() - 50.0) && entity.getPositionY() > (hero.getY() + hero.getHeight()+ 40.0)){
+            entity.setVelocity(-15.0, 0.0);
+        } else if (entity.getPositionX() < (hero.getX() - 50.0) && entity.getPositionY() > (hero.getY() + hero.getHeight()+ 40.0)){
+            entity.setVelocity(0.0, -15.0);
         }
     }
 
@@ -12,6 +12,13 @@ public interface Observer {
 
     int getValue();
 
+    /**
+     * Overwrites the value in the Observer, for instance when a save is loaded.
+     *
+     * @param value The new value.
+     */
+    void setValue(int value);
+
     /**
      * @return Observer A deep copy of this instance.
      */
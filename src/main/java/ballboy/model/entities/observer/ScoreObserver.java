@@ -18,6 +18,11 @@ public class ScoreObserver implements Observer {
         return this.score;
     }
 
+    @Override
+    public void setValue(int value) {
+        this.score = value;
+    }
+
     @Override
     public Observer copy() {
         return new ScoreObserver(score);
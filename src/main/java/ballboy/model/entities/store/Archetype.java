@@ -0,0 +1,21 @@
+package ballboy.model.entities.store;
+
+/**
+ * The kinds of entity that are stored together in an EntityStore.
+ */
+public enum Archetype {
+    HERO(true), ENEMY(true), CLOUD(true), SQUARECAT(true), STATIC(false);
+
+    private final boolean kinematic;
+
+    Archetype(boolean kinematic) {
+        this.kinematic = kinematic;
+    }
+
+    /**
+     * @return boolean True if entities of this archetype move, and so have a kinematic state.
+     */
+    public boolean isKinematic() {
+        return kinematic;
+    }
+}
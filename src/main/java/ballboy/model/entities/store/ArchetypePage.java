@@ -0,0 +1,74 @@
+package ballboy.model.entities.store;
+
+/**
+ * A fixed number of consecutive rows of an ArchetypeTable, with one primitive array per component.
+ * <p>
+ * Pages are the unit of copy-on-write. A page may only be written by the table generation that owns it, and is
+ * copied by any other generation before it writes, so a page that has been shared with a snapshot never changes.
+ */
+final class ArchetypePage {
+    static final int SHIFT = 6;
+    static final int SIZE = 1 << SHIFT;
+    static final int MASK = SIZE - 1;
+
+    final Object owner;
+
+    final double[] positionX;
+    final double[] positionY;
+    final double[] previousPositionX;
+    final double[] previousPositionY;
+    final double[] velocityX;
+    final double[] velocityY;
+    final double[] horizontalAcceleration;
+
+    final double[] boxX;
+    final double[] boxY;
+    final double[] width;
+    final double[] height;
+    final boolean[] alive;
+
+    ArchetypePage(
+            Object owner,
+            boolean kinematic) {
+        this.owner = owner;
+        int kinematicSize = kinematic ? SIZE : 0;
+        positionX = new double[kinematicSize];
+        positionY = new double[kinematicSize];
+        previousPositionX = new double[kinematicSize];
+        previousPositionY = new double[kinematicSize];
+        velocityX = new double[kinematicSize];
+        velocityY = new double[kinematicSize];
+        horizontalAcceleration = new double[kinematicSize];
+        boxX = new double[SIZE];
+        boxY = new double[SIZE];
+        width = new double[SIZE];
+        height = new double[SIZE];
+        alive = new boolean[SIZE];
+    }
+
+    private ArchetypePage(
+            ArchetypePage page,
+            Object owner) {
+        this.owner = owner;
+        positionX = page.positionX.clone();
+        positionY = page.positionY.clone();
+        previousPositionX = page.previousPositionX.clone();
+        previousPositionY = page.previousPositionY.clone();
+        velocityX = page.velocityX.clone();
+        velocityY = page.velocityY.clone();
+        horizontalAcceleration = page.horizontalAcceleration.clone();
+        boxX = page.boxX.clone();
+        boxY = page.boxY.clone();
+        width = page.width.clone();
+        height = page.height.clone();
+        alive = page.alive.clone();
+    }
+
+    /**
+     * @param owner The generation the copy belongs to.
+     * @return ArchetypePage A deep copy of this page, writable by the provided generation.
+     */
+    ArchetypePage copy(Object owner) {
+        return new ArchetypePage(this, owner);
+    }
+}
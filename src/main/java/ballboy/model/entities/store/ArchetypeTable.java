@@ -0,0 +1,532 @@
+package ballboy.model.entities.store;
+
+import java.util.Arrays;
+
+/**
+ * Column oriented storage for all entities of one archetype.
+ * <p>
+ * Each entity owns a row, with every component held in a parallel primitive array. Stepping the table forward
+ * is a linear scan over those arrays. Rows are never reused, so a released row just stops being stepped.
+ * <p>
+ * The rows are split into fixed size pages, which are shared copy-on-write between the table, its copies and its
+ * snapshots. Taking a snapshot only shares the page directory, and writing a row afterwards copies the page it is in
+ * once. Tables that are never written, such as the one holding static entities, are never copied.
+ * <p>
+ * The handles in this package read pages through readPage and must write through writePage. Pages may be replaced
+ * on any write, so they must not be cached outside of the table.
+ */
+public class ArchetypeTable {
+    /**
+     * The number of rows in each page.
+     */
+    public static final int PAGE_SIZE = ArchetypePage.SIZE;
+
+    private static final int KINEMATIC_ROW_WORDS = 7;
+    private static final int VOLUME_ROW_WORDS = 5;
+
+    private final Archetype archetype;
+    private int size = 0;
+
+    private ArchetypePage[] pages = new ArchetypePage[0];
+    /**
+     * The generation of this table. Only pages owned by it may be written in place.
+     */
+    private Object generation = new Object();
+    /**
+     * True while the page directory itself is shared with a copy or snapshot.
+     */
+    private boolean directoryShared = false;
+    /**
+     * One bit per row of each page, set when the row is written, for incremental saves. Bits are only ever set when
+     * they are clear, so concurrent writers of rows that are already marked never write this array.
+     */
+    private long[] changedRows = new long[0];
+    /**
+     * A count of the writes to each row, for views to tell whether an entity changed. Rows are only ever counted by
+     * the thread writing them, so disjoint rows can be written concurrently.
+     */
+    private int[] rowVersions = new int[0];
+    /**
+     * Bumped whenever rows are replaced wholesale, which makes every row version move on at once.
+     */
+    private long epoch = 0;
+
+    ArchetypeTable(Archetype archetype) {
+        this.archetype = archetype;
+    }
+
+    private ArchetypeTable(
+            Archetype archetype,
+            ArchetypePage[] pages,
+            int size) {
+        this.archetype = archetype;
+        this.pages = pages;
+        this.size = size;
+        this.directoryShared = true;
+        this.changedRows = new long[pages.length];
+        Arrays.fill(changedRows, -1L);
+        this.rowVersions = new int[pages.length << ArchetypePage.SHIFT];
+    }
+
+    /**
+     * @return Archetype The archetype of every entity in this table.
+     */
+    public Archetype getArchetype() {
+        return archetype;
+    }
+
+    /**
+     * @return int The number of rows, including released ones.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return int The number of pages holding the rows.
+     */
+    public int getPageCount() {
+        return (size + ArchetypePage.MASK) >>> ArchetypePage.SHIFT;
+    }
+
+    /**
+     * @param row The row to be checked.
+     * @return boolean True if the row has not been released.
+     */
+    public boolean isAlive(int row) {
+        return readPage(row).alive[row & ArchetypePage.MASK];
+    }
+
+    /**
+     * Adds a row for a new entity, at rest apart from the provided horizontal velocity.
+     *
+     * @param x         The left of the entity.
+     * @param y         The top of the entity.
+     * @param velocityX The starting horizontal velocity. This is ignored for static archetypes.
+     * @param height    The height of the entity volume.
+     * @param width     The width of the entity volume.
+     * @return int The index of the new row.
+     */
+    public int addRow(
+            double x,
+            double y,
+            double velocityX,
+            double height,
+            double width) {
+        ensureCapacity(size + 1);
+        int row = size++;
+        ArchetypePage page = writePage(row);
+        int i = row & ArchetypePage.MASK;
+        if (archetype.isKinematic()) {
+            page.positionX[i] = x;
+            page.positionY[i] = y;
+            page.previousPositionX[i] = x;
+            page.previousPositionY[i] = y;
+            page.velocityX[i] = velocityX;
+            page.velocityY[i] = 0;
+            page.horizontalAcceleration[i] = 0;
+        }
+        page.boxX[i] = x;
+        page.boxY[i] = y;
+        page.width[i] = width;
+        page.height[i] = height;
+        page.alive[i] = true;
+        return row;
+    }
+
+    /**
+     * Stops the row from being stepped forward. Its last state remains readable.
+     *
+     * @param row The row of the removed entity.
+     */
+    public void release(int row) {
+        writePage(row).alive[row & ArchetypePage.MASK] = false;
+    }
+
+    /**
+     * Steps the kinematic state of every live row forward. Volumes are not moved, as that is left to
+     * the behaviour of each entity.
+     *
+     * @param milliSeconds The duration that the rows are stepped forward by.
+     * @param levelGravity The current gravity to be applied in the downwards direction.
+     */
+    public void integrate(
+            double milliSeconds,
+            double levelGravity) {
+        prepareWrite();
+        integratePages(0, getPageCount(), milliSeconds, levelGravity);
+    }
+
+    /**
+     * Takes ownership of the page directory. This must be called before pages are written from several threads,
+     * after which each thread may write a disjoint range of pages.
+     */
+    public void prepareWrite() {
+        if (directoryShared) {
+            pages = pages.clone();
+            directoryShared = false;
+        }
+    }
+
+    /**
+     * Steps the kinematic state of the live rows in the pages [fromPage, toPage) forward. Pages are independent of
+     * each other, so disjoint ranges may be stepped concurrently once prepareWrite has been called.
+     * <p>
+     * Every page in the range is made writable by this table, even if none of its rows are live, so that
+     * behaviours may then write their own rows concurrently. Only the live rows are marked as written.
+     *
+     * @param fromPage     The first page to be stepped, inclusive.
+     * @param toPage       The last page to be stepped, exclusive.
+     * @param milliSeconds The duration that the rows are stepped forward by.
+     * @param levelGravity The current gravity to be applied in the downwards direction.
+     */
+    public void integratePages(
+            int fromPage,
+            int toPage,
+            double milliSeconds,
+            double levelGravity) {
+        if (!archetype.isKinematic()) {
+            return;
+        }
+        // squarecat is not affected by gravity
+        double gravity = archetype == Archetype.SQUARECAT ? 0 : levelGravity;
+        for (int pageIndex = fromPage; pageIndex < toPage; ++pageIndex) {
+            ArchetypePage page = ensureWritable(pageIndex);
+            int rows = Math.min(ArchetypePage.SIZE, size - (pageIndex << ArchetypePage.SHIFT));
+            long changed = 0;
+            for (int i = 0; i < rows; ++i) {
+                if (page.alive[i]) {
+                    integrateRow(page, i, milliSeconds, gravity);
+                    changed |= 1L << i;
+                    rowVersions[(pageIndex << ArchetypePage.SHIFT) | i]++;
+                }
+            }
+            changedRows[pageIndex] |= changed;
+        }
+    }
+
+    /**
+     * Steps the kinematic state of a single row forward.
+     *
+     * @param row          The row to be stepped.
+     * @param milliSeconds The duration that the row is stepped forward by.
+     * @param levelGravity The current gravity to be applied in the downwards direction.
+     */
+    void integrateRow(
+            int row,
+            double milliSeconds,
+            double levelGravity) {
+        integrateRow(writePage(row), row & ArchetypePage.MASK, milliSeconds, levelGravity);
+    }
+
+    private void integrateRow(
+            ArchetypePage page,
+            int i,
+            double milliSeconds,
+            double levelGravity) {
+        if (archetype == Archetype.SQUARECAT) {
+            // squarecat restarts from its position within the square it moves in, see SquareCatKinematicStateImpl
+            page.positionX[i] = page.previousPositionX[i] + page.velocityX[i] * milliSeconds * 1e-3;
+            page.positionY[i] = page.previousPositionY[i] + page.velocityY[i] * milliSeconds * 1e-3;
+        } else {
+            page.previousPositionX[i] = page.positionX[i];
+            page.previousPositionY[i] = page.positionY[i];
+            page.positionX[i] += page.velocityX[i] * milliSeconds * 1e-3;
+            page.positionY[i] += page.velocityY[i] * milliSeconds * 1e-3;
+        }
+        page.velocityX[i] += page.horizontalAcceleration[i] * milliSeconds * 1e-3;
+        page.velocityY[i] += levelGravity * milliSeconds * 1e-3;
+    }
+
+    /**
+     * @return int The number of words written by writeState, which is fixed once every row has been added.
+     */
+    public int getStateLength() {
+        return size * getRowWords();
+    }
+
+    /**
+     * Writes every row into a flat vector of raw bits, one word per component, so that states can be compared and
+     * encoded without knowing the layout of the table.
+     *
+     * @param state  The vector to be written into.
+     * @param offset The index of the first word to be written.
+     * @return int The index after the last word written.
+     */
+    public int writeState(
+            long[] state,
+            int offset) {
+        for (int row = 0; row < size; ++row) {
+            offset = writeRow(readPage(row), row & ArchetypePage.MASK, archetype.isKinematic(), state, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Replaces every row with the rows of a vector written by writeState. Pages are only written, and therefore
+     * copied, if one of their rows differs from the vector.
+     *
+     * @param state  The vector to be read from.
+     * @param offset The index of the first word to be read.
+     * @return int The index after the last word read.
+     */
+    public int readState(
+            long[] state,
+            int offset) {
+        int rowWords = getRowWords();
+        for (int pageIndex = 0; pageIndex < getPageCount(); ++pageIndex) {
+            int firstRow = pageIndex << ArchetypePage.SHIFT;
+            int rows = Math.min(ArchetypePage.SIZE, size - firstRow);
+            int pageOffset = offset + firstRow * rowWords;
+            if (matchesState(readPage(firstRow), rows, state, pageOffset)) {
+                continue;
+            }
+            ArchetypePage page = ensureWritable(pageIndex);
+            for (int i = 0; i < rows; ++i) {
+                pageOffset = readRow(page, i, state, pageOffset);
+            }
+            changedRows[pageIndex] = -1L;
+            epoch++;
+        }
+        return offset + getStateLength();
+    }
+
+    /**
+     * Collects the rows written since the last call to captureChanges or clearChanges, or since a restore, and
+     * starts tracking changes afresh.
+     *
+     * @return TableDelta The current state of the changed rows.
+     */
+    TableDelta captureChanges() {
+        int count = 0;
+        for (int pageIndex = 0; pageIndex < getPageCount(); ++pageIndex) {
+            count += Long.bitCount(changedRows[pageIndex] & pageRowMask(pageIndex));
+        }
+        int[] rows = new int[count];
+        long[] words = new long[count * getRowWords()];
+        int index = 0;
+        int offset = 0;
+        for (int pageIndex = 0; pageIndex < getPageCount(); ++pageIndex) {
+            long changed = changedRows[pageIndex] & pageRowMask(pageIndex);
+            ArchetypePage page = pages[pageIndex];
+            while (changed != 0) {
+                int i = Long.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+                rows[index++] = (pageIndex << ArchetypePage.SHIFT) | i;
+                offset = writeRow(page, i, archetype.isKinematic(), words, offset);
+            }
+        }
+        clearChanges();
+        return new TableDelta(rows, words);
+    }
+
+    /**
+     * Stops tracking the rows changed so far, so that the current state becomes the base of the next delta.
+     */
+    void clearChanges() {
+        Arrays.fill(changedRows, 0L);
+    }
+
+    /**
+     * Writes the rows of a delta over the current rows.
+     *
+     * @param delta A delta captured from this table.
+     */
+    void apply(TableDelta delta) {
+        int offset = 0;
+        for (int row : delta.rows) {
+            offset = readRow(writePage(row), row & ArchetypePage.MASK, delta.words, offset);
+        }
+    }
+
+    private int getRowWords() {
+        return archetype.isKinematic() ? KINEMATIC_ROW_WORDS + VOLUME_ROW_WORDS : VOLUME_ROW_WORDS;
+    }
+
+    /**
+     * @return long A mask of the rows of the page that exist.
+     */
+    private long pageRowMask(int pageIndex) {
+        int rows = Math.min(ArchetypePage.SIZE, size - (pageIndex << ArchetypePage.SHIFT));
+        return rows == ArchetypePage.SIZE ? -1L : (1L << rows) - 1;
+    }
+
+    static int writeRow(
+            ArchetypePage page,
+            int i,
+            boolean kinematic,
+            long[] state,
+            int offset) {
+        if (kinematic) {
+            state[offset++] = Double.doubleToRawLongBits(page.positionX[i]);
+            state[offset++] = Double.doubleToRawLongBits(page.positionY[i]);
+            state[offset++] = Double.doubleToRawLongBits(page.previousPositionX[i]);
+            state[offset++] = Double.doubleToRawLongBits(page.previousPositionY[i]);
+            state[offset++] = Double.doubleToRawLongBits(page.velocityX[i]);
+            state[offset++] = Double.doubleToRawLongBits(page.velocityY[i]);
+            state[offset++] = Double.doubleToRawLongBits(page.horizontalAcceleration[i]);
+        }
+        state[offset++] = Double.doubleToRawLongBits(page.boxX[i]);
+        state[offset++] = Double.doubleToRawLongBits(page.boxY[i]);
+        state[offset++] = Double.doubleToRawLongBits(page.width[i]);
+        state[offset++] = Double.doubleToRawLongBits(page.height[i]);
+        state[offset++] = page.alive[i] ? 1 : 0;
+        return offset;
+    }
+
+    private int readRow(
+            ArchetypePage page,
+            int i,
+            long[] state,
+            int offset) {
+        if (archetype.isKinematic()) {
+            page.positionX[i] = Double.longBitsToDouble(state[offset++]);
+            page.positionY[i] = Double.longBitsToDouble(state[offset++]);
+            page.previousPositionX[i] = Double.longBitsToDouble(state[offset++]);
+            page.previousPositionY[i] = Double.longBitsToDouble(state[offset++]);
+            page.velocityX[i] = Double.longBitsToDouble(state[offset++]);
+            page.velocityY[i] = Double.longBitsToDouble(state[offset++]);
+            page.horizontalAcceleration[i] = Double.longBitsToDouble(state[offset++]);
+        }
+        page.boxX[i] = Double.longBitsToDouble(state[offset++]);
+        page.boxY[i] = Double.longBitsToDouble(state[offset++]);
+        page.width[i] = Double.longBitsToDouble(state[offset++]);
+        page.height[i] = Double.longBitsToDouble(state[offset++]);
+        page.alive[i] = state[offset++] != 0;
+        return offset;
+    }
+
+    private boolean matchesState(
+            ArchetypePage page,
+            int rows,
+            long[] state,
+            int offset) {
+        boolean kinematic = archetype.isKinematic();
+        for (int i = 0; i < rows; ++i) {
+            if (kinematic) {
+                if (state[offset++] != Double.doubleToRawLongBits(page.positionX[i])
+                        || state[offset++] != Double.doubleToRawLongBits(page.positionY[i])
+                        || state[offset++] != Double.doubleToRawLongBits(page.previousPositionX[i])
+                        || state[offset++] != Double.doubleToRawLongBits(page.previousPositionY[i])
+                        || state[offset++] != Double.doubleToRawLongBits(page.velocityX[i])
+                        || state[offset++] != Double.doubleToRawLongBits(page.velocityY[i])
+                        || state[offset++] != Double.doubleToRawLongBits(page.horizontalAcceleration[i])) {
+                    return false;
+                }
+            }
+            if (state[offset++] != Double.doubleToRawLongBits(page.boxX[i])
+                    || state[offset++] != Double.doubleToRawLongBits(page.boxY[i])
+                    || state[offset++] != Double.doubleToRawLongBits(page.width[i])
+                    || state[offset++] != Double.doubleToRawLongBits(page.height[i])
+                    || state[offset++] != (page.alive[i] ? 1 : 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The version only increases, and it changes whenever the row is written, including when the table is restored.
+     * Two reads of the same version are therefore of the same state.
+     *
+     * @param row A row of this table.
+     * @return long The version of the row.
+     */
+    public long getVersion(int row) {
+        return epoch << 32 | (rowVersions[row] & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param row A row of this table.
+     * @return ArchetypePage The page holding the row, which must only be read.
+     */
+    ArchetypePage readPage(int row) {
+        return pages[row >>> ArchetypePage.SHIFT];
+    }
+
+    /**
+     * @param row A row of this table.
+     * @return ArchetypePage The page holding the row, copied first if it is shared.
+     */
+    ArchetypePage writePage(int row) {
+        int pageIndex = row >>> ArchetypePage.SHIFT;
+        if ((changedRows[pageIndex] & (1L << row)) == 0) {
+            changedRows[pageIndex] |= 1L << row;
+        }
+        rowVersions[row]++;
+        return ensureWritable(pageIndex);
+    }
+
+    /**
+     * Unlike writePage, this does not mark any row as written, so callers that write rows of the page must mark them
+     * themselves.
+     *
+     * @param pageIndex A page of this table.
+     * @return ArchetypePage The page, copied first if it is shared.
+     */
+    private ArchetypePage ensureWritable(int pageIndex) {
+        ArchetypePage page = pages[pageIndex];
+        if (page.owner != generation) {
+            prepareWrite();
+            page = page.copy(generation);
+            pages[pageIndex] = page;
+        }
+        return page;
+    }
+
+    /**
+     * Shares the current rows with a snapshot. This does not copy any rows.
+     *
+     * @return TableSnapshot The snapshot.
+     */
+    TableSnapshot snapshot() {
+        share();
+        return new TableSnapshot(pages, size, archetype.isKinematic());
+    }
+
+    /**
+     * Replaces every row with the rows of the provided snapshot, which stays unchanged. This does not copy any rows.
+     *
+     * @param snapshot A snapshot of this table.
+     */
+    void restore(TableSnapshot snapshot) {
+        pages = snapshot.pages;
+        size = snapshot.size;
+        share();
+        changedRows = new long[pages.length];
+        Arrays.fill(changedRows, -1L);
+        rowVersions = Arrays.copyOf(rowVersions, pages.length << ArchetypePage.SHIFT);
+        epoch++;
+    }
+
+    /**
+     * @return ArchetypeTable A copy of this table, with the same rows. The rows are shared copy-on-write.
+     */
+    ArchetypeTable copy() {
+        share();
+        return new ArchetypeTable(archetype, pages, size);
+    }
+
+    /**
+     * Starts a new generation, so that every current page and the directory are copied before they are written.
+     */
+    private void share() {
+        directoryShared = true;
+        generation = new Object();
+    }
+
+    private void ensureCapacity(int capacity) {
+        int pageCount = (capacity + ArchetypePage.MASK) >>> ArchetypePage.SHIFT;
+        if (pages.length >= pageCount) {
+            return;
+        }
+        ArchetypePage[] newPages = Arrays.copyOf(pages, Math.max(pageCount, pages.length * 2));
+        for (int i = pages.length; i < newPages.length; ++i) {
+            newPages[i] = new ArchetypePage(generation, archetype.isKinematic());
+        }
+        pages = newPages;
+        changedRows = Arrays.copyOf(changedRows, newPages.length);
+        rowVersions = Arrays.copyOf(rowVersions, newPages.length << ArchetypePage.SHIFT);
+        directoryShared = false;
+    }
+}
@@ -0,0 +1,194 @@
+package ballboy.model.entities.store;
+
+import ballboy.model.Entity;
+
+/**
+ * Entity-component storage for a level, holding the state of every entity in one ArchetypeTable per archetype.
+ * <p>
+ * Entities are thin handles over a row of this store, through TableKinematicState and TableBoundingBox.
+ * Copies and snapshots of the store share its rows copy-on-write, see ArchetypeTable.
+ */
+public class EntityStore {
+    private final ArchetypeTable[] tables;
+    private int entityCount = 0;
+
+    public EntityStore() {
+        Archetype[] archetypes = Archetype.values();
+        tables = new ArchetypeTable[archetypes.length];
+        for (Archetype archetype : archetypes) {
+            tables[archetype.ordinal()] = new ArchetypeTable(archetype);
+        }
+    }
+
+    private EntityStore(EntityStore store) {
+        tables = new ArchetypeTable[store.tables.length];
+        for (int i = 0; i < tables.length; ++i) {
+            tables[i] = store.tables[i].copy();
+        }
+        entityCount = store.entityCount;
+    }
+
+    /**
+     * IDs are dense from 0 within a level, so views can be kept in a table indexed by them. A copy of the store
+     * continues from the same ID, as copied entities keep theirs.
+     *
+     * @return int The ID of a new entity of the level.
+     */
+    public int nextEntityId() {
+        return entityCount++;
+    }
+
+    /**
+     * @return int The number of IDs handed out, which bounds every entity ID of the level.
+     */
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    /**
+     * @param archetype The archetype of the requested table.
+     * @return ArchetypeTable The table holding every entity of the provided archetype.
+     */
+    public ArchetypeTable getTable(Archetype archetype) {
+        return tables[archetype.ordinal()];
+    }
+
+    /**
+     * Steps the kinematic state of every live entity forward, one table at a time.
+     *
+     * @param milliSeconds The duration that the entities are stepped forward by.
+     * @param levelGravity The current gravity to be applied in the downwards direction.
+     */
+    public void integrate(
+            double milliSeconds,
+            double levelGravity) {
+        for (ArchetypeTable table : tables) {
+            table.integrate(milliSeconds, levelGravity);
+        }
+    }
+
+    /**
+     * Releases the row backing the provided entity, so that it is no longer stepped forward.
+     * Entities that are not backed by this store are ignored.
+     *
+     * @param entity The entity that was removed from the level.
+     */
+    public void release(Entity entity) {
+        if (entity.getVolume() instanceof TableBoundingBox) {
+            TableBoundingBox volume = (TableBoundingBox) entity.getVolume();
+            if (getTable(volume.getArchetype()) == volume.getTable()) {
+                volume.getTable().release(volume.getRow());
+            }
+        }
+    }
+
+    /**
+     * @return int The number of words written by writeState.
+     */
+    public int getStateLength() {
+        int length = 0;
+        for (ArchetypeTable table : tables) {
+            length += table.getStateLength();
+        }
+        return length;
+    }
+
+    /**
+     * Writes the rows of every table into a flat vector, see ArchetypeTable.writeState.
+     *
+     * @param state  The vector to be written into.
+     * @param offset The index of the first word to be written.
+     * @return int The index after the last word written.
+     */
+    public int writeState(
+            long[] state,
+            int offset) {
+        for (ArchetypeTable table : tables) {
+            offset = table.writeState(state, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Replaces the rows of every table with those of a vector written by writeState.
+     *
+     * @param state  The vector to be read from.
+     * @param offset The index of the first word to be read.
+     * @return int The index after the last word read.
+     */
+    public int readState(
+            long[] state,
+            int offset) {
+        for (ArchetypeTable table : tables) {
+            offset = table.readState(state, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Takes a snapshot of every table. No rows are copied, the pages are shared copy-on-write instead.
+     *
+     * @return StoreSnapshot The snapshot.
+     */
+    public StoreSnapshot snapshot() {
+        TableSnapshot[] snapshots = new TableSnapshot[tables.length];
+        for (int i = 0; i < tables.length; ++i) {
+            snapshots[i] = tables[i].snapshot();
+        }
+        return new StoreSnapshot(snapshots);
+    }
+
+    /**
+     * Puts every table back to the state of the provided snapshot. Handles stay bound to the same rows.
+     *
+     * @param snapshot A snapshot taken from this store.
+     */
+    public void restore(StoreSnapshot snapshot) {
+        for (int i = 0; i < tables.length; ++i) {
+            tables[i].restore(snapshot.tables[i]);
+        }
+    }
+
+    /**
+     * Collects the rows written since the last call to captureChanges or clearChanges, or since a restore. Every
+     * row that is stepped forward counts as written.
+     *
+     * @return StoreDelta A copy of the changed rows.
+     */
+    public StoreDelta captureChanges() {
+        TableDelta[] deltas = new TableDelta[tables.length];
+        for (int i = 0; i < tables.length; ++i) {
+            deltas[i] = tables[i].captureChanges();
+        }
+        return new StoreDelta(deltas);
+    }
+
+    /**
+     * Makes the current state the base of the next captureChanges.
+     */
+    public void clearChanges() {
+        for (ArchetypeTable table : tables) {
+            table.clearChanges();
+        }
+    }
+
+    /**
+     * Writes the rows of a delta captured from this store over the current rows.
+     *
+     * @param delta The delta.
+     */
+    public void apply(StoreDelta delta) {
+        for (int i = 0; i < tables.length; ++i) {
+            tables[i].apply(delta.tables[i]);
+        }
+    }
+
+    /**
+     * Handles of the copied entities are rebound to the same rows of the copy through their copy(Level) methods.
+     *
+     * @return EntityStore A copy of this store, sharing its rows copy-on-write.
+     */
+    public EntityStore copy() {
+        return new EntityStore(this);
+    }
+}
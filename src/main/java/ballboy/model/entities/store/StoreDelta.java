@@ -0,0 +1,24 @@
+package ballboy.model.entities.store;
+
+/**
+ * The rows of every table of an EntityStore that changed since a base state. It holds copies of those rows only,
+ * so its size scales with what changed rather than with the store.
+ */
+public final class StoreDelta {
+    final TableDelta[] tables;
+
+    StoreDelta(TableDelta[] tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * @return int The number of changed rows.
+     */
+    public int getRowCount() {
+        int count = 0;
+        for (TableDelta table : tables) {
+            count += table.rows.length;
+        }
+        return count;
+    }
+}
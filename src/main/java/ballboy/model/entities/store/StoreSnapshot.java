@@ -0,0 +1,31 @@
+package ballboy.model.entities.store;
+
+/**
+ * The state of every entity of an EntityStore at one point in time.
+ * <p>
+ * A snapshot shares the pages of the store it was taken from, and never changes. It is safe to read from other
+ * threads once it has been handed over.
+ */
+public final class StoreSnapshot {
+    final TableSnapshot[] tables;
+
+    StoreSnapshot(TableSnapshot[] tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * Writes the rows of every table in the layout of EntityStore.writeState. This may be called from any thread.
+     *
+     * @param state  The vector to be written into.
+     * @param offset The index of the first word to be written.
+     * @return int The index after the last word written.
+     */
+    public int writeState(
+            long[] state,
+            int offset) {
+        for (TableSnapshot table : tables) {
+            offset = table.writeState(state, offset);
+        }
+        return offset;
+    }
+}
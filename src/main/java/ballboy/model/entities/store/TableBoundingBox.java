@@ -0,0 +1,126 @@
+package ballboy.model.entities.store;
+
+import ballboy.model.Level;
+import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
+import ballboy.model.entities.utilities.Vector2D;
+
+/**
+ * Bounding volume handle over a row of an ArchetypeTable.
+ */
+public class TableBoundingBox implements AxisAlignedBoundingBox {
+    private final ArchetypeTable table;
+    private final int row;
+
+    public TableBoundingBox(
+            ArchetypeTable table,
+            int row) {
+        this.table = table;
+        this.row = row;
+    }
+
+    /**
+     * @return ArchetypeTable The table holding this volume.
+     */
+    public ArchetypeTable getTable() {
+        return table;
+    }
+
+    /**
+     * @return int The row of this volume within its table.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return Archetype The archetype of the entity enclosed by this volume.
+     */
+    public Archetype getArchetype() {
+        return table.getArchetype();
+    }
+
+    @Override
+    public long getVersion() {
+        return table.getVersion(row);
+    }
+
+    @Override
+    public double getWidth() {
+        return table.readPage(row).width[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public double getHeight() {
+        return table.readPage(row).height[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public boolean collidesWith(AxisAlignedBoundingBox box) {
+        return collidesWith(box.getLeftX(), box.getTopY(), box.getRightX(), box.getBottomY());
+    }
+
+    @Override
+    public boolean collidesWith(
+            double leftX,
+            double topY,
+            double rightX,
+            double bottomY) {
+        return getLeftX() < rightX &&
+                getRightX() > leftX &&
+                getBottomY() > topY &&
+                getTopY() < bottomY;
+    }
+
+    @Override
+    public boolean containsPoint(Vector2D point) {
+        return point.isRightOf(getLeftX()) &&
+                point.isLeftOf(getRightX()) &&
+                point.isAbove(getBottomY()) &&
+                point.isBelow(getTopY());
+    }
+
+    @Override
+    public double getLeftX() {
+        return table.readPage(row).boxX[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public double getRightX() {
+        ArchetypePage page = table.readPage(row);
+        return page.boxX[row & ArchetypePage.MASK] + page.width[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public double getTopY() {
+        return table.readPage(row).boxY[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public double getBottomY() {
+        ArchetypePage page = table.readPage(row);
+        return page.boxY[row & ArchetypePage.MASK] + page.height[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public void setTopLeft(Vector2D topLeft) {
+        setTopLeft(topLeft.getX(), topLeft.getY());
+    }
+
+    @Override
+    public void setTopLeft(
+            double leftX,
+            double topY) {
+        ArchetypePage page = table.writePage(row);
+        page.boxX[row & ArchetypePage.MASK] = leftX;
+        page.boxY[row & ArchetypePage.MASK] = topY;
+    }
+
+    /**
+     * @param level The level holding the copied store.
+     * @return AxisAlignedBoundingBox The handle over the same row of the provided level's store.
+     */
+    @Override
+    public AxisAlignedBoundingBox copy(Level level) {
+        return new TableBoundingBox(level.getEntityStore().getTable(table.getArchetype()), row);
+    }
+}
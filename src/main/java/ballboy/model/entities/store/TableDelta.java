@@ -0,0 +1,16 @@
+package ballboy.model.entities.store;
+
+/**
+ * The rows of an ArchetypeTable that changed since a base state, each in the layout of ArchetypeTable.writeState.
+ */
+final class TableDelta {
+    final int[] rows;
+    final long[] words;
+
+    TableDelta(
+            int[] rows,
+            long[] words) {
+        this.rows = rows;
+        this.words = words;
+    }
+}
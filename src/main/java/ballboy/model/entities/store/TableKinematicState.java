@@ -0,0 +1,132 @@
+package ballboy.model.entities.store;
+
+import ballboy.model.Level;
+import ballboy.model.entities.utilities.KinematicState;
+import ballboy.model.entities.utilities.Vector2D;
+
+/**
+ * Kinematic state handle over a row of an ArchetypeTable.
+ */
+public class TableKinematicState implements KinematicState {
+    private final ArchetypeTable table;
+    private final int row;
+
+    public TableKinematicState(
+            ArchetypeTable table,
+            int row) {
+        if (!table.getArchetype().isKinematic()) {
+            throw new IllegalArgumentException(
+                    String.format("%s entities do not have a kinematic state", table.getArchetype()));
+        }
+        this.table = table;
+        this.row = row;
+    }
+
+    @Override
+    public Vector2D getPreviousPosition() {
+        ArchetypePage page = table.readPage(row);
+        int i = row & ArchetypePage.MASK;
+        return new Vector2D(page.previousPositionX[i], page.previousPositionY[i]);
+    }
+
+    @Override
+    public double getPreviousPositionX() {
+        return table.readPage(row).previousPositionX[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public double getPreviousPositionY() {
+        return table.readPage(row).previousPositionY[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public Vector2D getPosition() {
+        ArchetypePage page = table.readPage(row);
+        int i = row & ArchetypePage.MASK;
+        return new Vector2D(page.positionX[i], page.positionY[i]);
+    }
+
+    @Override
+    public double getPositionX() {
+        return table.readPage(row).positionX[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public double getPositionY() {
+        return table.readPage(row).positionY[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public void setPosition(Vector2D position) {
+        setPosition(position.getX(), position.getY());
+    }
+
+    @Override
+    public void setPosition(
+            double x,
+            double y) {
+        ArchetypePage page = table.writePage(row);
+        int i = row & ArchetypePage.MASK;
+        page.previousPositionX[i] = page.positionX[i];
+        page.previousPositionY[i] = page.positionY[i];
+        page.positionX[i] = x;
+        page.positionY[i] = y;
+    }
+
+    @Override
+    public Vector2D getVelocity() {
+        ArchetypePage page = table.readPage(row);
+        int i = row & ArchetypePage.MASK;
+        return new Vector2D(page.velocityX[i], page.velocityY[i]);
+    }
+
+    @Override
+    public double getVelocityX() {
+        return table.readPage(row).velocityX[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public double getVelocityY() {
+        return table.readPage(row).velocityY[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public void setVelocity(Vector2D velocity) {
+        setVelocity(velocity.getX(), velocity.getY());
+    }
+
+    @Override
+    public void setVelocity(
+            double x,
+            double y) {
+        ArchetypePage page = table.writePage(row);
+        page.velocityX[row & ArchetypePage.MASK] = x;
+        page.velocityY[row & ArchetypePage.MASK] = y;
+    }
+
+    @Override
+    public double getHorizontalAcceleration() {
+        return table.readPage(row).horizontalAcceleration[row & ArchetypePage.MASK];
+    }
+
+    @Override
+    public void setHorizontalAcceleration(double acceleration) {
+        table.writePage(row).horizontalAcceleration[row & ArchetypePage.MASK] = acceleration;
+    }
+
+    @Override
+    public void update(
+            double milliSeconds,
+            double levelGravity) {
+        table.integrateRow(row, milliSeconds, levelGravity);
+    }
+
+    /**
+     * @param level The level holding the copied store.
+     * @return KinematicState The handle over the same row of the provided level's store.
+     */
+    @Override
+    public KinematicState copy(Level level) {
+        return new TableKinematicState(level.getEntityStore().getTable(table.getArchetype()), row);
+    }
+}
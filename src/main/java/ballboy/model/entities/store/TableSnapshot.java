@@ -0,0 +1,36 @@
+package ballboy.model.entities.store;
+
+/**
+ * The rows of an ArchetypeTable at one point in time, sharing its pages.
+ */
+final class TableSnapshot {
+    final ArchetypePage[] pages;
+    final int size;
+    final boolean kinematic;
+
+    TableSnapshot(
+            ArchetypePage[] pages,
+            int size,
+            boolean kinematic) {
+        this.pages = pages;
+        this.size = size;
+        this.kinematic = kinematic;
+    }
+
+    /**
+     * Writes every row in the layout of ArchetypeTable.writeState.
+     *
+     * @param state  The vector to be written into.
+     * @param offset The index of the first word to be written.
+     * @return int The index after the last word written.
+     */
+    int writeState(
+            long[] state,
+            int offset) {
+        for (int row = 0; row < size; ++row) {
+            offset = ArchetypeTable.writeRow(pages[row >>> ArchetypePage.SHIFT], row & ArchetypePage.MASK, kinematic,
+                    state, offset);
+        }
+        return offset;
+    }
+}
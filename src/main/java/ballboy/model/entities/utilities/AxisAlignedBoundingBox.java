@@ -1,5 +1,7 @@
 package ballboy.model.entities.utilities;
 
+import ballboy.model.Level;
+
 /**
  * Simple bounding volume, represented by a box with no rotation.
  */
@@ -15,12 +17,33 @@ public interface AxisAlignedBoundingBox {
      */
     double getHeight();
 
+    /**
+     * @return long A version that increases whenever the volume is written, so that readers can skip an unchanged
+     * volume without comparing its bounds.
+     */
+    long getVersion();
+
     /**
      * @param box The volume that is checked for overlap.
      * @return boolean This returns true if this box overlaps with the provided box.
      */
     boolean collidesWith(AxisAlignedBoundingBox box);
 
+    /**
+     * Allocation free variant of {@link #collidesWith(AxisAlignedBoundingBox)}.
+     *
+     * @param leftX   The x coordinate of the left most wall of the checked box.
+     * @param topY    The y coordinate of the top of the checked box.
+     * @param rightX  The x coordinate of the right most wall of the checked box.
+     * @param bottomY The y coordinate of the bottom of the checked box.
+     * @return boolean This returns true if this box overlaps with the provided box.
+     */
+    boolean collidesWith(
+            double leftX,
+            double topY,
+            double rightX,
+            double bottomY);
+
     /**
      * @param point 2D location to be queried.
      * @return boolean True if this volume contains the provided point.
@@ -55,7 +78,18 @@ public interface AxisAlignedBoundingBox {
     void setTopLeft(Vector2D topLeft);
 
     /**
+     * Allocation free variant of {@link #setTopLeft(Vector2D)}.
+     *
+     * @param leftX The new x coordinate of the left most wall of the box.
+     * @param topY  The new y coordinate of the top of the box.
+     */
+    void setTopLeft(
+            double leftX,
+            double topY);
+
+    /**
+     * @param level The level the copy belongs to.
      * @return AxisAlignedBoundingBox A deep copy of this instance.
      */
-    AxisAlignedBoundingBox copy();
+    AxisAlignedBoundingBox copy(Level level);
 }
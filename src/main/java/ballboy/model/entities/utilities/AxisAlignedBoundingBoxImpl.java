@@ -1,13 +1,19 @@
 package ballboy.model.entities.utilities;
 
+import ballboy.model.Level;
+
 /**
  * Standard implementation of an AxisAlignedBoundingBox, with O(1) time
  * collidesWith and containsPoint implementations.
+ * <p>
+ * The anchor is held as primitives so that moving the box does not allocate.
  */
 public class AxisAlignedBoundingBoxImpl implements AxisAlignedBoundingBox {
     private final double width;
     private final double height;
-    private Vector2D topLeft;
+    private double leftX;
+    private double topY;
+    private long version = 0;
 
     public AxisAlignedBoundingBoxImpl(
             Vector2D topLeft,
@@ -15,7 +21,8 @@ public class AxisAlignedBoundingBoxImpl implements AxisAlignedBoundingBox {
             double width) {
         this.width = width;
         this.height = height;
-        this.topLeft = topLeft;
+        this.leftX = topLeft.getX();
+        this.topY = topLeft.getY();
     }
 
     @Override
@@ -30,35 +37,58 @@ public class AxisAlignedBoundingBoxImpl implements AxisAlignedBoundingBox {
 
     @Override
     public double getLeftX() {
-        return topLeft.getX();
+        return leftX;
     }
 
     @Override
     public double getRightX() {
-        return topLeft.getX() + width;
+        return leftX + width;
     }
 
     @Override
     public double getTopY() {
-        return topLeft.getY();
+        return topY;
     }
 
     @Override
     public double getBottomY() {
-        return topLeft.getY() + height;
+        return topY + height;
     }
 
     @Override
     public void setTopLeft(Vector2D topLeft) {
-        this.topLeft = topLeft;
+        setTopLeft(topLeft.getX(), topLeft.getY());
+    }
+
+    @Override
+    public void setTopLeft(
+            double leftX,
+            double topY) {
+        this.leftX = leftX;
+        this.topY = topY;
+        version++;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
     }
 
     @Override
     public boolean collidesWith(AxisAlignedBoundingBox box) {
-        return getLeftX() < box.getRightX() &&
-                getRightX() > box.getLeftX() &&
-                getBottomY() > box.getTopY() &&
-                getTopY() < box.getBottomY();
+        return collidesWith(box.getLeftX(), box.getTopY(), box.getRightX(), box.getBottomY());
+    }
+
+    @Override
+    public boolean collidesWith(
+            double leftX,
+            double topY,
+            double rightX,
+            double bottomY) {
+        return getLeftX() < rightX &&
+                getRightX() > leftX &&
+                getBottomY() > topY &&
+                getTopY() < bottomY;
     }
 
     @Override
@@ -70,11 +100,11 @@ public class AxisAlignedBoundingBoxImpl implements AxisAlignedBoundingBox {
     }
 
     @Override
-    public AxisAlignedBoundingBoxImpl copy() {
+    public AxisAlignedBoundingBoxImpl copy(Level level) {
         return new AxisAlignedBoundingBoxImpl(
-                topLeft.clone(),
+                new Vector2D(leftX, topY),
                 height,
                 width
         );
     }
-}
\ No newline at end of file
+}
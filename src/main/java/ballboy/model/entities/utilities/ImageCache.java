@@ -0,0 +1,172 @@
+package ballboy.model.entities.utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A process-wide cache of entity images, so that every entity drawn with the same sprite shares one LazyImage.
+ * <p>
+ * Images are keyed by file name and requested size, and each one is decoded at most once while it is cached. An image
+ * is held for the owners that acquired it, usually the levels whose entities use it, and is evicted once every owner
+ * has released it. Owners are counted once no matter how many of their entities use the image, so a level can be
+ * released in a single call when it is discarded. An owner that is put back in use after being released, such as a
+ * discarded level that a save still held, reacquires the images it held.
+ * <p>
+ * Images can be acquired from any thread, so that levels can be built in the background.
+ */
+public class ImageCache {
+    private static final ImageCache SHARED = new ImageCache();
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+    // the images each released owner held, for as long as the owner is reachable
+    private final Map<Object, List<Entry>> released = new WeakHashMap<>();
+
+    /**
+     * @return ImageCache The cache shared by every entity factory.
+     */
+    public static ImageCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the image at its own size, reading its header only if it is not cached yet.
+     *
+     * @param owner The owner the image is held for, such as the level of the entity it is for.
+     * @param name  The file name of the PNG image, relative to the resource directory.
+     * @return LazyImage The shared image.
+     * @throws IllegalArgumentException Thrown when the image cannot be found or is not a PNG file.
+     */
+    public LazyImage acquire(
+            Object owner,
+            String name) {
+        return acquire(owner, name, 0, 0);
+    }
+
+    /**
+     * Returns the image decoded at the requested size, reading its header only if it is not cached yet.
+     *
+     * @param owner           The owner the image is held for, such as the level of the entity it is for.
+     * @param name            The file name of the PNG image, relative to the resource directory.
+     * @param requestedWidth  The width to decode the image at, or 0 for its own width.
+     * @param requestedHeight The height to decode the image at, or 0 for its own height.
+     * @return LazyImage The shared image.
+     * @throws IllegalArgumentException Thrown when the image cannot be found or is not a PNG file.
+     */
+    public synchronized LazyImage acquire(
+            Object owner,
+            String name,
+            double requestedWidth,
+            double requestedHeight) {
+        Key key = new Key(name, requestedWidth, requestedHeight);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(key, new LazyImage(name, requestedWidth, requestedHeight));
+            entries.put(key, entry);
+        }
+        entry.owners.add(owner);
+        return entry.image;
+    }
+
+    /**
+     * Releases every image held for the owner, evicting the ones no other owner holds. Entities that still refer to
+     * an evicted image keep working, but the image is no longer shared.
+     *
+     * @param owner The owner.
+     */
+    public synchronized void release(Object owner) {
+        List<Entry> held = new ArrayList<>();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.owners.remove(owner)) {
+                held.add(entry);
+                if (entry.owners.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+        if (!held.isEmpty()) {
+            released.put(owner, held);
+        }
+    }
+
+    /**
+     * Holds the images a released owner held for it again. An evicted image is cached again as the one its entities
+     * still refer to, unless the same image has been cached again since, in which case that one is held instead.
+     * Nothing is done for an owner that has not been released.
+     *
+     * @param owner The owner.
+     */
+    public synchronized void reacquire(Object owner) {
+        List<Entry> held = released.remove(owner);
+        if (held == null) {
+            return;
+        }
+        for (Entry previous : held) {
+            Entry entry = entries.get(previous.key);
+            if (entry == null) {
+                entry = new Entry(previous.key, previous.image);
+                entries.put(previous.key, entry);
+            }
+            entry.owners.add(owner);
+        }
+    }
+
+    /**
+     * @return int The number of cached images.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+        private final Key key;
+        private final LazyImage image;
+        private final Set<Object> owners = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private Entry(
+                Key key,
+                LazyImage image) {
+            this.key = key;
+            this.image = image;
+        }
+    }
+
+    private static class Key {
+        private final String name;
+        private final double requestedWidth;
+        private final double requestedHeight;
+
+        private Key(
+                String name,
+                double requestedWidth,
+                double requestedHeight) {
+            this.name = name;
+            this.requestedWidth = requestedWidth;
+            this.requestedHeight = requestedHeight;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return name.equals(key.name) && Double.compare(requestedWidth, key.requestedWidth) == 0
+                    && Double.compare(requestedHeight, key.requestedHeight) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, requestedWidth, requestedHeight);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ballboy.model.entities.utilities;
 
+import ballboy.model.Level;
+
 /**
  * Encapsulation of a physical objects motion.
  */
@@ -10,26 +12,76 @@ public interface KinematicState {
      */
     Vector2D getPreviousPosition();
 
+    /**
+     * @return double The horizontal component of the previous position before the last update.
+     */
+    double getPreviousPositionX();
+
+    /**
+     * @return double The vertical component of the previous position before the last update.
+     */
+    double getPreviousPositionY();
+
     /**
      * @return Vector2 The current position.
      */
     Vector2D getPosition();
 
+    /**
+     * @return double The horizontal component of the current position.
+     */
+    double getPositionX();
+
+    /**
+     * @return double The vertical component of the current position.
+     */
+    double getPositionY();
+
     /**
      * @param position The new position of this state.
      */
     void setPosition(Vector2D position);
 
+    /**
+     * Allocation free variant of {@link #setPosition(Vector2D)}.
+     *
+     * @param x The new horizontal position of this state.
+     * @param y The new vertical position of this state.
+     */
+    void setPosition(
+            double x,
+            double y);
+
     /**
      * @return Vector2 The current velocity.
      */
     Vector2D getVelocity();
 
+    /**
+     * @return double The horizontal component of the current velocity.
+     */
+    double getVelocityX();
+
+    /**
+     * @return double The vertical component of the current velocity.
+     */
+    double getVelocityY();
+
     /**
      * @param velocity The new velocity of this state.
      */
     void setVelocity(Vector2D velocity);
 
+    /**
+     * Allocation free variant of {@link #setVelocity(Vector2D)}.
+     *
+     * @param x The new horizontal velocity of this state.
+     * @param y The new vertical velocity of this state.
+     */
+    void setVelocity(
+            double x,
+            double y);
+
     /**
      * @return double The current horizontal acceleration of this state.
      */
@@ -49,7 +101,8 @@ public interface KinematicState {
             double levelGravity);
 
     /**
+     * @param level The level the copy belongs to.
      * @return KinematicState A deep copy of this instance.
      */
-    KinematicState copy();
+    KinematicState copy(Level level);
 }
@@ -1,22 +1,26 @@
 package ballboy.model.entities.utilities;
 
+import ballboy.model.Level;
+
 /**
  * Discrete kinematic state implementation.
+ * <p>
+ * State is held as primitives so that stepping it forward does not allocate.
  */
 public class KinematicStateImpl implements KinematicState {
-    private Vector2D position;
-    private Vector2D previousPosition;
-    private Vector2D velocity;
+    private double positionX;
+    private double positionY;
+    private double previousPositionX;
+    private double previousPositionY;
+    private double velocityX;
+    private double velocityY;
     private double horizontalAcceleration;
 
     private KinematicStateImpl(
             Vector2D position,
             Vector2D velocity,
             double horizontalAcceleration) {
-        this.position = position;
-        this.previousPosition = position;
-        this.velocity = velocity;
-        this.horizontalAcceleration = horizontalAcceleration;
+        this(position, position, velocity, horizontalAcceleration);
     }
 
     private KinematicStateImpl(
@@ -24,31 +28,71 @@ public class KinematicStateImpl implements KinematicState {
             Vector2D previousPosition,
             Vector2D velocity,
             double horizontalAcceleration) {
-        this.position = position;
-        this.previousPosition = previousPosition;
-        this.velocity = velocity;
+        this.positionX = position.getX();
+        this.positionY = position.getY();
+        this.previousPositionX = previousPosition.getX();
+        this.previousPositionY = previousPosition.getY();
+        this.velocityX = velocity.getX();
+        this.velocityY = velocity.getY();
         this.horizontalAcceleration = horizontalAcceleration;
     }
 
     @Override
     public Vector2D getPosition() {
-        return this.position;
+        return new Vector2D(positionX, positionY);
+    }
+
+    @Override
+    public double getPositionX() {
+        return positionX;
+    }
+
+    @Override
+    public double getPositionY() {
+        return positionY;
     }
 
     @Override
     public void setPosition(Vector2D position) {
-        this.previousPosition = this.position;
-        this.position = position;
+        setPosition(position.getX(), position.getY());
+    }
+
+    @Override
+    public void setPosition(
+            double x,
+            double y) {
+        this.previousPositionX = this.positionX;
+        this.previousPositionY = this.positionY;
+        this.positionX = x;
+        this.positionY = y;
     }
 
     @Override
     public Vector2D getVelocity() {
-        return this.velocity;
+        return new Vector2D(velocityX, velocityY);
+    }
+
+    @Override
+    public double getVelocityX() {
+        return velocityX;
+    }
+
+    @Override
+    public double getVelocityY() {
+        return velocityY;
     }
 
     @Override
     public void setVelocity(Vector2D velocity) {
-        this.velocity = velocity;
+        setVelocity(velocity.getX(), velocity.getY());
+    }
+
+    @Override
+    public void setVelocity(
+            double x,
+            double y) {
+        this.velocityX = x;
+        this.velocityY = y;
     }
 
     @Override
@@ -65,20 +109,32 @@ public class KinematicStateImpl implements KinematicState {
     public void update(
             double milliSeconds,
             double levelGravity) {
-        this.previousPosition = position;
-        this.position = this.position.add(this.velocity.scale(milliSeconds).scale(1e-3));
-        Vector2D acceleration = new Vector2D(horizontalAcceleration, levelGravity);
-        this.velocity = this.velocity.add(acceleration.scale(milliSeconds).scale(1e-3));
+        this.previousPositionX = positionX;
+        this.previousPositionY = positionY;
+        this.positionX += velocityX * milliSeconds * 1e-3;
+        this.positionY += velocityY * milliSeconds * 1e-3;
+        this.velocityX += horizontalAcceleration * milliSeconds * 1e-3;
+        this.velocityY += levelGravity * milliSeconds * 1e-3;
     }
 
     @Override
-    public KinematicState copy() {
-        return new KinematicStateImpl(position.clone(), previousPosition.clone(), velocity.clone(), horizontalAcceleration);
+    public KinematicState copy(Level level) {
+        return new KinematicStateImpl(getPosition(), getPreviousPosition(), getVelocity(), horizontalAcceleration);
     }
 
     @Override
     public Vector2D getPreviousPosition() {
-        return previousPosition;
+        return new Vector2D(previousPositionX, previousPositionY);
+    }
+
+    @Override
+    public double getPreviousPositionX() {
+        return previousPositionX;
+    }
+
+    @Override
+    public double getPreviousPositionY() {
+        return previousPositionY;
     }
 
     public static class KinematicStateBuilder {
@@ -0,0 +1,121 @@
+package ballboy.model.entities.utilities;
+
+import javafx.scene.image.Image;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * An entity image that is only decoded when it is first displayed.
+ * <p>
+ * The dimensions are read from the header of the PNG file, so entities can be created and simulated without a
+ * JavaFX toolkit. The JavaFX Image is created on the first call to get(), which must happen once the toolkit is
+ * running. get() must only be called from one thread, which is the JavaFX application thread, or the SimulationThread
+ * when there is one.
+ * <p>
+ * Entity factories share images through the ImageCache rather than creating their own.
+ */
+public class LazyImage {
+    private static final long PNG_SIGNATURE = 0x89504E470D0A1A0AL;
+    private static final int IHDR = 0x49484452;
+
+    private final String name;
+    private final double width;
+    private final double height;
+    private final double requestedWidth;
+    private final double requestedHeight;
+    private Image image;
+
+    /**
+     * @param name The file name of the PNG image, relative to the resource directory.
+     * @throws IllegalArgumentException Thrown when the image cannot be found or is not a PNG file.
+     * @throws UncheckedIOException     Thrown when the image header cannot be read.
+     */
+    public LazyImage(String name) {
+        this(name, 0, 0);
+    }
+
+    /**
+     * @param name            The file name of the PNG image, relative to the resource directory.
+     * @param requestedWidth  The width to decode the image at, or 0 for its own width.
+     * @param requestedHeight The height to decode the image at, or 0 for its own height.
+     * @throws IllegalArgumentException Thrown when the image cannot be found or is not a PNG file.
+     * @throws UncheckedIOException     Thrown when the image header cannot be read.
+     */
+    public LazyImage(
+            String name,
+            double requestedWidth,
+            double requestedHeight) {
+        this.name = name;
+        this.requestedWidth = requestedWidth;
+        this.requestedHeight = requestedHeight;
+        try (InputStream stream = openResource(name)) {
+            DataInputStream input = new DataInputStream(stream);
+            // the IHDR chunk is always first, right after the signature and the chunk length
+            if (input.readLong() != PNG_SIGNATURE) {
+                throw new IllegalArgumentException(String.format("%s is not a PNG image", name));
+            }
+            input.readInt();
+            if (input.readInt() != IHDR) {
+                throw new IllegalArgumentException(String.format("%s has no PNG header", name));
+            }
+            this.width = Integer.toUnsignedLong(input.readInt());
+            this.height = Integer.toUnsignedLong(input.readInt());
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Could not read the header of %s", name), e);
+        }
+    }
+
+    private static InputStream openResource(String name) {
+        // resolve the name in the same way as a JavaFX Image without a URL scheme
+        String path = name.startsWith("/") ? name.substring(1) : name;
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        InputStream stream = loader == null ? null : loader.getResourceAsStream(path);
+        if (stream == null) {
+            stream = LazyImage.class.getClassLoader().getResourceAsStream(path);
+        }
+        if (stream == null) {
+            throw new IllegalArgumentException(String.format("Image %s not found", name));
+        }
+        return stream;
+    }
+
+    /**
+     * @return String The file name of the image.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The size of the image file, which is kept even when the image is decoded at a requested size.
+     *
+     * @return double The width of the image in pixels.
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * @return double The height of the image in pixels.
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Decodes the image on the first call.
+     *
+     * @return Image The decoded image.
+     */
+    public Image get() {
+        if (image == null) {
+            image = requestedWidth == 0 && requestedHeight == 0
+                    ? new Image(name)
+                    : new Image(name, requestedWidth, requestedHeight, true, true);
+        }
+        return image;
+    }
+}
@@ -1,23 +1,27 @@
 package ballboy.model.entities.utilities;
 
+import ballboy.model.Level;
+
 /**
  * Discrete kinematic state implementation for square cat.
  * make squarecat moves in square in somewhere, and then add the x and y coordinate to the hero.
+ * <p>
+ * State is held as primitives so that stepping it forward does not allocate.
  */
 public class SquareCatKinematicStateImpl implements KinematicState {
-    private Vector2D position;
-    private Vector2D previousPosition;
-    private Vector2D velocity;
+    private double positionX;
+    private double positionY;
+    private double previousPositionX;
+    private double previousPositionY;
+    private double velocityX;
+    private double velocityY;
     private double horizontalAcceleration;
 
     private SquareCatKinematicStateImpl(
             Vector2D position,
             Vector2D velocity,
             double horizontalAcceleration) {
-        this.position = position;
-        this.previousPosition = position;
-        this.velocity = velocity;
-        this.horizontalAcceleration = horizontalAcceleration;
+        this(position, position, velocity, horizontalAcceleration);
     }
 
     private SquareCatKinematicStateImpl(
@@ -25,31 +29,71 @@ public class SquareCatKinematicStateImpl implements KinematicState {
             Vector2D previousPosition,
             Vector2D velocity,
             double horizontalAcceleration) {
-        this.position = position;
-        this.previousPosition = previousPosition;
-        this.velocity = velocity;
+        this.positionX = position.getX();
+        this.positionY = position.getY();
+        this.previousPositionX = previousPosition.getX();
+        this.previousPositionY = previousPosition.getY();
+        this.velocityX = velocity.getX();
+        this.velocityY = velocity.getY();
         this.horizontalAcceleration = horizontalAcceleration;
     }
 
     @Override
     public Vector2D getPosition() {
-        return this.position;
+        return new Vector2D(positionX, positionY);
+    }
+
+    @Override
+    public double getPositionX() {
+        return positionX;
+    }
+
+    @Override
+    public double getPositionY() {
+        return positionY;
     }
 
     @Override
     public void setPosition(Vector2D position) {
-        this.previousPosition = this.position;
-        this.position = position;
+        setPosition(position.getX(), position.getY());
+    }
+
+    @Override
+    public void setPosition(
+            double x,
+            double y) {
+        this.previousPositionX = this.positionX;
+        this.previousPositionY = this.positionY;
+        this.positionX = x;
+        this.positionY = y;
     }
 
     @Override
     public Vector2D getVelocity() {
-        return this.velocity;
+        return new Vector2D(velocityX, velocityY);
+    }
+
+    @Override
+    public double getVelocityX() {
+        return velocityX;
+    }
+
+    @Override
+    public double getVelocityY() {
+        return velocityY;
     }
 
     @Override
     public void setVelocity(Vector2D velocity) {
-        this.velocity = velocity;
+        setVelocity(velocity.getX(), velocity.getY());
+    }
+
+    @Override
+    public void setVelocity(
+            double x,
+            double y) {
+        this.velocityX = x;
+        this.velocityY = y;
     }
 
     @Override
@@ -67,20 +111,30 @@ public class SquareCatKinematicStateImpl implements KinematicState {
     public void update(
             double milliSeconds,
             double levelGravity) {
-        this.position = previousPosition;
-        this.position = this.position.add(this.velocity.scale(milliSeconds).scale(1e-3));
-        Vector2D acceleration = new Vector2D(horizontalAcceleration, levelGravity);
-        this.velocity = this.velocity.add(acceleration.scale(milliSeconds).scale(1e-3));
+        this.positionX = previousPositionX + velocityX * milliSeconds * 1e-3;
+        this.positionY = previousPositionY + velocityY * milliSeconds * 1e-3;
+        this.velocityX += horizontalAcceleration * milliSeconds * 1e-3;
+        this.velocityY += levelGravity * milliSeconds * 1e-3;
     }
 
     @Override
-    public KinematicState copy() {
-        return new SquareCatKinematicStateImpl(position.clone(), previousPosition.clone(), velocity.clone(), horizontalAcceleration);
+    public KinematicState copy(Level level) {
+        return new SquareCatKinematicStateImpl(getPosition(), getPreviousPosition(), getVelocity(), horizontalAcceleration);
     }
 
     @Override
     public Vector2D getPreviousPosition() {
-        return previousPosition;
+        return new Vector2D(previousPositionX, previousPositionY);
+    }
+
+    @Override
+    public double getPreviousPositionX() {
+        return previousPositionX;
+    }
+
+    @Override
+    public double getPreviousPositionY() {
+        return previousPositionY;
     }
 
     public static class SquareCatKinematicStateBuilder {
@@ -6,12 +6,14 @@ import ballboy.model.Level;
 import ballboy.model.entities.behaviour.PassiveEntityBehaviourStrategy;
 import ballboy.model.entities.collision.BallboyCollisionStrategy;
 import ballboy.model.entities.DynamicEntityImpl;
+import ballboy.model.entities.store.Archetype;
+import ballboy.model.entities.store.ArchetypeTable;
+import ballboy.model.entities.store.TableBoundingBox;
+import ballboy.model.entities.store.TableKinematicState;
 import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
-import ballboy.model.entities.utilities.AxisAlignedBoundingBoxImpl;
 import ballboy.model.entities.utilities.KinematicState;
-import ballboy.model.entities.utilities.KinematicStateImpl;
-import ballboy.model.entities.utilities.Vector2D;
-import javafx.scene.image.Image;
+import ballboy.model.entities.utilities.ImageCache;
+import ballboy.model.entities.utilities.LazyImage;
 import org.json.simple.JSONObject;
 
 /*
@@ -41,27 +43,22 @@ public class BallboyFactory implements EntityFactory {
                 throw new ConfigurationParseException(String.format("Invalid hero size %s", size));
             }
 
-            Image image = new Image(imageName);
+            LazyImage image = ImageCache.getShared().acquire(level, imageName);
             // preserve image ratio
             double width = height * image.getWidth() / image.getHeight();
 
-            Vector2D startingPosition = new Vector2D(startX, startY);
+            ArchetypeTable table = level.getEntityStore().getTable(Archetype.HERO);
+            int row = table.addRow(startX, startY, 0, height, width);
 
-            KinematicState kinematicState = new KinematicStateImpl.KinematicStateBuilder()
-                    .setPosition(startingPosition)
-                    .build();
-
-            AxisAlignedBoundingBox volume = new AxisAlignedBoundingBoxImpl(
-                    startingPosition,
-                    height,
-                    width
-            );
+            KinematicState kinematicState = new TableKinematicState(table, row);
+            AxisAlignedBoundingBox volume = new TableBoundingBox(table, row);
 
             return new DynamicEntityImpl(
+                    level.getEntityStore().nextEntityId(),
                     kinematicState,
                     volume,
                     Entity.Layer.FOREGROUND,
-                    new Image(imageName),
+                    image,
                     new BallboyCollisionStrategy(level),
                     new PassiveEntityBehaviourStrategy(),
                     config
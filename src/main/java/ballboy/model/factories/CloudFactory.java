@@ -6,12 +6,14 @@ import ballboy.model.Level;
 import ballboy.model.entities.behaviour.FloatingCloudBehaviourStrategy;
 import ballboy.model.entities.collision.PassiveCollisionStrategy;
 import ballboy.model.entities.DynamicEntityImpl;
+import ballboy.model.entities.store.Archetype;
+import ballboy.model.entities.store.ArchetypeTable;
+import ballboy.model.entities.store.TableBoundingBox;
+import ballboy.model.entities.store.TableKinematicState;
 import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
-import ballboy.model.entities.utilities.AxisAlignedBoundingBoxImpl;
 import ballboy.model.entities.utilities.KinematicState;
-import ballboy.model.entities.utilities.KinematicStateImpl;
-import ballboy.model.entities.utilities.Vector2D;
-import javafx.scene.image.Image;
+import ballboy.model.entities.utilities.ImageCache;
+import ballboy.model.entities.utilities.LazyImage;
 import org.json.simple.JSONObject;
 
 /*
@@ -29,26 +31,20 @@ public class CloudFactory implements EntityFactory {
             double xVelocity = ((Number) config.get("horizontalVelocity")).doubleValue();
             String imageName = (String) config.getOrDefault("image", "cloud_1.png");
 
-            Vector2D startingPosition = new Vector2D(startX, startY);
+            LazyImage image = ImageCache.getShared().acquire(level, imageName);
 
-            KinematicState kinematicState = new KinematicStateImpl.KinematicStateBuilder()
-                    .setPosition(startingPosition)
-                    .setHorizontalVelocity(xVelocity)
-                    .build();
+            ArchetypeTable table = level.getEntityStore().getTable(Archetype.CLOUD);
+            int row = table.addRow(startX, startY, xVelocity, image.getHeight(), image.getWidth());
 
-            Image image = new Image(imageName);
-
-            AxisAlignedBoundingBox volume = new AxisAlignedBoundingBoxImpl(
-                    startingPosition,
-                    image.getHeight(),
-                    image.getWidth()
-            );
+            KinematicState kinematicState = new TableKinematicState(table, row);
+            AxisAlignedBoundingBox volume = new TableBoundingBox(table, row);
 
             return new DynamicEntityImpl(
+                    level.getEntityStore().nextEntityId(),
                     kinematicState,
                     volume,
                     Entity.Layer.BACKGROUND,
-                    new Image(imageName),
+                    image,
                     new PassiveCollisionStrategy(),
                     new FloatingCloudBehaviourStrategy(),
                     config
@@ -10,12 +10,14 @@ import ballboy.model.entities.behaviour.ScaredEnemyBehaviourStrategy;
 import ballboy.model.entities.collision.CollisionStrategy;
 import ballboy.model.entities.collision.EnemyCollisionStrategy;
 import ballboy.model.entities.DynamicEntityImpl;
+import ballboy.model.entities.store.Archetype;
+import ballboy.model.entities.store.ArchetypeTable;
+import ballboy.model.entities.store.TableBoundingBox;
+import ballboy.model.entities.store.TableKinematicState;
 import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
-import ballboy.model.entities.utilities.AxisAlignedBoundingBoxImpl;
 import ballboy.model.entities.utilities.KinematicState;
-import ballboy.model.entities.utilities.KinematicStateImpl;
-import ballboy.model.entities.utilities.Vector2D;
-import javafx.scene.image.Image;
+import ballboy.model.entities.utilities.ImageCache;
+import ballboy.model.entities.utilities.LazyImage;
 import org.json.simple.JSONObject;
 
 import java.util.Optional;
@@ -36,21 +38,20 @@ public class EnemyFactory implements EntityFactory {
 
             String imageName = (String) config.getOrDefault("image", "slimeBa.png");
 
-            Vector2D startingPosition = new Vector2D(startX, startY);
+            LazyImage image = ImageCache.getShared().acquire(level, imageName);
 
-            KinematicState kinematicState = new KinematicStateImpl.KinematicStateBuilder()
-                    .setPosition(startingPosition)
-                    .setHorizontalVelocity(startVelocityX)
-                    .build();
-
-            Image image = new Image(imageName);
-
-            AxisAlignedBoundingBox volume = new AxisAlignedBoundingBoxImpl(
-                    startingPosition,
+            ArchetypeTable table = level.getEntityStore().getTable(Archetype.ENEMY);
+            int row = table.addRow(
+                    startX,
+                    startY,
+                    startVelocityX,
                     height.orElse(image.getHeight()),
                     height.map(h -> h * image.getWidth() / image.getHeight()).orElse(image.getWidth())
             );
 
+            KinematicState kinematicState = new TableKinematicState(table, row);
+            AxisAlignedBoundingBox volume = new TableBoundingBox(table, row);
+
             CollisionStrategy collisionStrategy = new EnemyCollisionStrategy(level);
 
             BehaviourStrategy behaviourStrategy;
@@ -71,6 +72,7 @@ public class EnemyFactory implements EntityFactory {
 
 
             return new DynamicEntityImpl(
+                    level.getEntityStore().nextEntityId(),
                     kinematicState,
                     volume,
                     Entity.Layer.FOREGROUND,
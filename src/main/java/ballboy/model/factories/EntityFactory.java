@@ -11,6 +11,7 @@ public interface EntityFactory {
 
     /*
      * Instantiates an entity configured by the provided JSON for the provided Level.
+     * The entity state is to be stored in a row of the level's EntityStore.
      */
     Entity createEntity(
             Level level,
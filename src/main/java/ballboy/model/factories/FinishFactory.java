@@ -4,10 +4,12 @@ import ballboy.ConfigurationParseException;
 import ballboy.model.Entity;
 import ballboy.model.Level;
 import ballboy.model.entities.StaticEntityImpl;
+import ballboy.model.entities.store.Archetype;
+import ballboy.model.entities.store.ArchetypeTable;
+import ballboy.model.entities.store.TableBoundingBox;
 import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
-import ballboy.model.entities.utilities.AxisAlignedBoundingBoxImpl;
-import ballboy.model.entities.utilities.Vector2D;
-import javafx.scene.image.Image;
+import ballboy.model.entities.utilities.ImageCache;
+import ballboy.model.entities.utilities.LazyImage;
 import org.json.simple.JSONObject;
 
 import java.util.Optional;
@@ -29,17 +31,21 @@ public class FinishFactory implements EntityFactory {
 
             String imageName = (String) config.getOrDefault("image", "tree.png");
 
-            Vector2D finishPosition = new Vector2D(posX, posY);
+            LazyImage image = ImageCache.getShared().acquire(level, imageName);
 
-            Image image = new Image(imageName);
-
-            AxisAlignedBoundingBox volume = new AxisAlignedBoundingBoxImpl(
-                    finishPosition,
+            ArchetypeTable table = level.getEntityStore().getTable(Archetype.STATIC);
+            int row = table.addRow(
+                    posX,
+                    posY,
+                    0,
                     height.orElse(image.getHeight()),
                     height.map(h -> h * image.getWidth() / image.getHeight()).orElse(image.getWidth())
             );
 
+            AxisAlignedBoundingBox volume = new TableBoundingBox(table, row);
+
             return new StaticEntityImpl(
+                    level.getEntityStore().nextEntityId(),
                     volume,
                     Entity.Layer.FOREGROUND,
                     image
@@ -7,8 +7,11 @@ import ballboy.model.entities.behaviour.PassiveEntityBehaviourStrategy;
 import ballboy.model.entities.DynamicEntityImpl;
 import ballboy.model.entities.behaviour.SquareCatBehaviourStrategy;
 import ballboy.model.entities.collision.SquareCatCollisionStrategy;
+import ballboy.model.entities.store.Archetype;
+import ballboy.model.entities.store.ArchetypeTable;
+import ballboy.model.entities.store.TableBoundingBox;
+import ballboy.model.entities.store.TableKinematicState;
 import ballboy.model.entities.utilities.*;
-import javafx.scene.image.Image;
 import org.json.simple.JSONObject;
 
 /*
@@ -27,27 +30,22 @@ public class SquareCatFactory implements EntityFactory {
             String imageName = "squarecat.png";
 
 
-            Image image = new Image(imageName);
+            LazyImage image = ImageCache.getShared().acquire(level, imageName);
             // preserve image ratio
             double width = height * image.getWidth() / image.getHeight();
 
-            Vector2D startingPosition = new Vector2D(startX, startY);
+            ArchetypeTable table = level.getEntityStore().getTable(Archetype.SQUARECAT);
+            int row = table.addRow(startX, startY, 0, height, width);
 
-            KinematicState kinematicState = new SquareCatKinematicStateImpl.SquareCatKinematicStateBuilder()
-                    .setPosition(startingPosition)
-                    .build();
-
-            AxisAlignedBoundingBox volume = new AxisAlignedBoundingBoxImpl(
-                    startingPosition,
-                    height,
-                    width
-            );
+            KinematicState kinematicState = new TableKinematicState(table, row);
+            AxisAlignedBoundingBox volume = new TableBoundingBox(table, row);
 
             return new DynamicEntityImpl(
+                    level.getEntityStore().nextEntityId(),
                     kinematicState,
                     volume,
                     Entity.Layer.FOREGROUND,
-                    new Image(imageName),
+                    image,
                     new SquareCatCollisionStrategy(level),
                     new SquareCatBehaviourStrategy(level),
                     config
@@ -0,0 +1,42 @@
+package ballboy.model.levels;
+
+import ballboy.model.entities.DynamicEntity;
+
+import java.util.List;
+
+/**
+ * Broadphase collision culling for dynamic entities.
+ * Only the candidate pairs reported by the broadphase are passed on to the narrow phase checks.
+ */
+public interface Broadphase {
+
+    /**
+     * Reports every candidate pair of the provided entities exactly once, by their indices in the provided list. The
+     * lower index is always passed as the first argument. Pairs may be reported in any order, as they are sorted
+     * before they are resolved.
+     *
+     * @param entities    The dynamic entities of the current update.
+     * @param pairHandler The callback receiving each candidate pair.
+     */
+    void findPairs(
+            List<DynamicEntity> entities,
+            PairHandler pairHandler);
+
+    /**
+     * @return Broadphase A new instance with the same configuration, but none of the per update state.
+     */
+    Broadphase copy();
+
+    /**
+     * Receives the candidate pairs of a broadphase.
+     */
+    interface PairHandler {
+        /**
+         * @param first  The index of the first entity of the pair.
+         * @param second The index of the second entity of the pair, which is greater than the first.
+         */
+        void accept(
+                int first,
+                int second);
+    }
+}
@@ -0,0 +1,27 @@
+package ballboy.model.levels;
+
+import ballboy.model.entities.DynamicEntity;
+
+import java.util.List;
+
+/**
+ * Broadphase that reports every pair of entities, in O(n^2) time.
+ */
+public class BruteForceBroadphase implements Broadphase {
+
+    @Override
+    public void findPairs(
+            List<DynamicEntity> entities,
+            PairHandler pairHandler) {
+        for (int i = 0; i < entities.size(); ++i) {
+            for (int j = i + 1; j < entities.size(); ++j) {
+                pairHandler.accept(i, j);
+            }
+        }
+    }
+
+    @Override
+    public Broadphase copy() {
+        return new BruteForceBroadphase();
+    }
+}
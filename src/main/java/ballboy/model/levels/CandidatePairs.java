@@ -0,0 +1,109 @@
+package ballboy.model.levels;
+
+import java.util.Arrays;
+
+/**
+ * The candidate pairs reported by a broadphase, sorted by the indices of their first and then their second entity.
+ * <p>
+ * Sorting lets the narrow phase handle the entities in list order, each with its dynamic pairs and then its statics,
+ * as the original brute force update did. It also makes the order pairs are resolved in independent of the order a
+ * broadphase found them in, such as cell by cell or along the sweep axis. Pairs are grouped by their first entity
+ * with a counting sort, and each group, which rarely holds more than a few pairs, is sorted with an insertion sort.
+ * The arrays are kept between updates, so nothing is allocated once they are large enough.
+ */
+class CandidatePairs implements Broadphase.PairHandler {
+    private int count = 0;
+    private int[] firsts = new int[0];
+    private int[] seconds = new int[0];
+    /*
+     * groupStart[i] is the offset of the pairs of entity i in grouped, with groupStart[i + 1] being its end.
+     */
+    private int[] groupStart = new int[1];
+    private int[] grouped = new int[0];
+
+    /**
+     * Drops the pairs of the last update.
+     */
+    void clear() {
+        count = 0;
+    }
+
+    @Override
+    public void accept(
+            int first,
+            int second) {
+        if (count == firsts.length) {
+            int capacity = Math.max(16, count * 2);
+            firsts = Arrays.copyOf(firsts, capacity);
+            seconds = Arrays.copyOf(seconds, capacity);
+        }
+        firsts[count] = first;
+        seconds[count] = second;
+        ++count;
+    }
+
+    /**
+     * Sorts the pairs by their first and then their second entity.
+     *
+     * @param entityCount The number of entities the pairs were found among.
+     */
+    void group(int entityCount) {
+        if (groupStart.length < entityCount + 1) {
+            groupStart = new int[Math.max(entityCount + 1, groupStart.length * 2)];
+        }
+        if (grouped.length < count) {
+            grouped = new int[firsts.length];
+        }
+        Arrays.fill(groupStart, 0, entityCount + 1, 0);
+        for (int p = 0; p < count; ++p) {
+            groupStart[firsts[p] + 1]++;
+        }
+        for (int i = 1; i <= entityCount; ++i) {
+            groupStart[i] += groupStart[i - 1];
+        }
+        for (int p = count - 1; p >= 0; --p) {
+            grouped[--groupStart[firsts[p] + 1]] = seconds[p];
+        }
+        // every end was moved back to the start of its group, so shift the starts back into place
+        for (int i = 0; i < entityCount; ++i) {
+            groupStart[i] = groupStart[i + 1];
+        }
+        groupStart[entityCount] = count;
+
+        for (int i = 0; i < entityCount; ++i) {
+            int start = groupStart[i];
+            int end = groupStart[i + 1];
+            for (int p = start + 1; p < end; ++p) {
+                int second = grouped[p];
+                int q = p - 1;
+                while (q >= start && grouped[q] > second) {
+                    grouped[q + 1] = grouped[q];
+                    --q;
+                }
+                grouped[q + 1] = second;
+            }
+        }
+    }
+
+    /**
+     * @return int The offset of the first pair of the entity, see getSecond.
+     */
+    int getGroupStart(int first) {
+        return groupStart[first];
+    }
+
+    /**
+     * @return int The offset past the last pair of the entity, see getSecond.
+     */
+    int getGroupEnd(int first) {
+        return groupStart[first + 1];
+    }
+
+    /**
+     * @param offset An offset between getGroupStart and getGroupEnd of the first entity of the pair.
+     * @return int The index of the second entity of the pair.
+     */
+    int getSecond(int offset) {
+        return grouped[offset];
+    }
+}
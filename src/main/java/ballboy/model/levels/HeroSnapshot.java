@@ -0,0 +1,57 @@
+package ballboy.model.levels;
+
+import ballboy.model.entities.DynamicEntity;
+
+/**
+ * The state of the hero as seen by behaviour strategies during one update.
+ * <p>
+ * The level captures the hero once its kinematic state has been stepped, before any behaviour runs, and does not
+ * change the snapshot again until the next update. Behaviours can therefore run in any order, or in parallel, and
+ * still see the same hero.
+ */
+public class HeroSnapshot {
+    private double x;
+    private double y;
+    private double width;
+    private double height;
+
+    /**
+     * Copies the current state of the hero into this snapshot.
+     *
+     * @param hero The hero of the level.
+     */
+    void capture(DynamicEntity hero) {
+        this.x = hero.getPositionX();
+        this.y = hero.getPositionY();
+        this.width = hero.getWidth();
+        this.height = hero.getHeight();
+    }
+
+    /**
+     * @return double The x position of the hero.
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * @return double The y position of the hero.
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return double The width of the hero.
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * @return double The height of the hero.
+     */
+    public double getHeight() {
+        return height;
+    }
+}
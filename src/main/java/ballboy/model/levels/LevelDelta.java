@@ -0,0 +1,51 @@
+package ballboy.model.levels;
+
+import ballboy.model.Entity;
+import ballboy.model.entities.store.StoreDelta;
+
+import java.util.List;
+
+/**
+ * The changes to a LevelImpl since the previous snapshot or delta taken from it, as taken by
+ * LevelImpl.captureDelta(). It holds copies of the changed store rows and the entities removed since, so its size
+ * scales with what changed rather than with the level.
+ */
+public final class LevelDelta {
+    final StoreDelta store;
+    /**
+     * The entities removed since the base, or null when the whole entity list is held instead.
+     */
+    final Entity[] removedEntities;
+    /**
+     * The whole entity list, held when entities came back since the base, for example through a restore.
+     */
+    final List<Entity> entities;
+    final int red;
+    final int green;
+    final int blue;
+    final boolean finished;
+
+    LevelDelta(
+            StoreDelta store,
+            Entity[] removedEntities,
+            List<Entity> entities,
+            int red,
+            int green,
+            int blue,
+            boolean finished) {
+        this.store = store;
+        this.removedEntities = removedEntities;
+        this.entities = entities;
+        this.red = red;
+        this.green = green;
+        this.blue = blue;
+        this.finished = finished;
+    }
+
+    /**
+     * @return int The number of store rows held.
+     */
+    public int getRowCount() {
+        return store.getRowCount();
+    }
+}
@@ -0,0 +1,248 @@
+package ballboy.model.levels;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.util.Random;
+
+/**
+ * Generates level configurations of arbitrary size, in the same format as the levels of config.json.
+ * <p>
+ * The output is an in-memory JSONObject that can be passed straight to LevelImpl with an EntityFactoryRegistry, or
+ * written out with toJSONString(). Entities are placed from a seeded Random, so the same parameters always give the
+ * same level.
+ */
+public class LevelGenerator {
+    private static final String[] BEHAVIOURS = {"aggressive", "scared", "passive"};
+    private static final String[] COLORS = {"red", "green", "blue"};
+
+    private static final double LEVEL_HEIGHT = 620.0;
+    private static final double FLOOR_HEIGHT = 600.0;
+    private static final double ENEMY_HEIGHT = 20.0;
+    private static final double MAX_START_VELOCITY_X = 20.0;
+    private static final double CLOUD_ALTITUDE = 100.0;
+    private static final double[] STATIC_HEIGHTS = {40.0, 100.0, 200.0};
+    private static final String[] STATIC_IMAGES = {"boulder.png", "stoneblock.png", "stoneblock.png"};
+    private static final String[] CLOUD_IMAGES = {"cloud_1.png", "cloud_2.png"};
+
+    private final double levelWidth;
+    private final int[][] enemyCounts;
+    private final int staticCount;
+    private final int cloudCount;
+    private final long seed;
+
+    private LevelGenerator(
+            double levelWidth,
+            int[][] enemyCounts,
+            int staticCount,
+            int cloudCount,
+            long seed) {
+        this.levelWidth = levelWidth;
+        this.enemyCounts = enemyCounts;
+        this.staticCount = staticCount;
+        this.cloudCount = cloudCount;
+        this.seed = seed;
+    }
+
+    /**
+     * A generator for a level of the given size with a constant entity density. 70% of the entities are enemies,
+     * spread evenly over every behaviour and color, 20% are statics and 10% are clouds.
+     *
+     * @param entityCount The number of generic entities.
+     * @param seed        The seed entities are placed with.
+     * @return LevelGenerator The generator.
+     */
+    public static LevelGenerator ofSize(
+            int entityCount,
+            long seed) {
+        LevelGeneratorBuilder builder = new LevelGeneratorBuilder()
+                .setLevelWidth(Math.max(2000.0, entityCount * 20.0))
+                .setStatics(entityCount / 5)
+                .setClouds(entityCount / 10)
+                .setSeed(seed);
+        int enemyCount = entityCount - entityCount / 5 - entityCount / 10;
+        int kinds = BEHAVIOURS.length * COLORS.length;
+        for (int kind = 0; kind < kinds; ++kind) {
+            builder.setEnemies(BEHAVIOURS[kind / COLORS.length], COLORS[kind % COLORS.length],
+                    enemyCount / kinds + (kind < enemyCount % kinds ? 1 : 0));
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return JSONObject A new level configuration. Every call returns an identical, independent configuration.
+     */
+    @SuppressWarnings("unchecked")
+    public JSONObject generate() {
+        Random random = new Random(seed);
+        JSONArray genericEntities = new JSONArray();
+
+        for (int behaviour = 0; behaviour < BEHAVIOURS.length; ++behaviour) {
+            for (int color = 0; color < COLORS.length; ++color) {
+                for (int i = 0; i < enemyCounts[behaviour][color]; ++i) {
+                    genericEntities.add(enemy(random, BEHAVIOURS[behaviour], COLORS[color]));
+                }
+            }
+        }
+        for (int i = 0; i < staticCount; ++i) {
+            int kind = random.nextInt(STATIC_HEIGHTS.length);
+            JSONObject entity = new JSONObject();
+            entity.put("type", "static");
+            entity.put("posX", random.nextDouble() * levelWidth);
+            entity.put("posY", FLOOR_HEIGHT - STATIC_HEIGHTS[kind]);
+            entity.put("height", STATIC_HEIGHTS[kind]);
+            entity.put("image", STATIC_IMAGES[kind]);
+            genericEntities.add(entity);
+        }
+        for (int i = 0; i < cloudCount; ++i) {
+            JSONObject entity = new JSONObject();
+            entity.put("type", "cloud");
+            entity.put("startX", random.nextDouble() * levelWidth);
+            entity.put("startY", random.nextDouble() * CLOUD_ALTITUDE);
+            entity.put("horizontalVelocity", velocity(random));
+            entity.put("image", CLOUD_IMAGES[random.nextInt(CLOUD_IMAGES.length)]);
+            genericEntities.add(entity);
+        }
+
+        JSONObject floor = new JSONObject();
+        floor.put("height", FLOOR_HEIGHT);
+        floor.put("color", "#001100");
+
+        JSONObject hero = new JSONObject();
+        hero.put("type", "hero");
+        hero.put("startX", 150.0);
+        hero.put("startY", 300.0);
+        hero.put("size", "large");
+        hero.put("image", "ch_stand2.png");
+
+        JSONObject finish = new JSONObject();
+        finish.put("type", "finish");
+        finish.put("posX", levelWidth - 100.0);
+        finish.put("posY", FLOOR_HEIGHT - 80.0);
+        finish.put("height", 80.0);
+
+        JSONObject squarecat = new JSONObject();
+        squarecat.put("type", "squarecat");
+        squarecat.put("startX", 0.0);
+        squarecat.put("startY", 0.0);
+        squarecat.put("size", 20.0);
+
+        JSONObject level = new JSONObject();
+        level.put("levelWidth", levelWidth);
+        level.put("levelHeight", LEVEL_HEIGHT);
+        level.put("levelGravity", 700.0);
+        level.put("maxHeroVelocityX", 50);
+        level.put("floor", floor);
+        level.put("genericEntities", genericEntities);
+        level.put("hero", hero);
+        level.put("finish", finish);
+        level.put("squarecat", squarecat);
+        return level;
+    }
+
+    /**
+     * @return JSONObject A root configuration, as in config.json, holding only the generated level.
+     */
+    @SuppressWarnings("unchecked")
+    public JSONObject generateConfiguration() {
+        JSONArray levels = new JSONArray();
+        levels.add(generate());
+        JSONObject configuration = new JSONObject();
+        configuration.put("currentLevelIndex", 0);
+        configuration.put("levels", levels);
+        return configuration;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONObject enemy(
+            Random random,
+            String behaviour,
+            String color) {
+        JSONObject entity = new JSONObject();
+        entity.put("type", "enemy");
+        entity.put("color", color);
+        entity.put("startX", random.nextDouble() * levelWidth);
+        entity.put("startY", random.nextDouble() * (FLOOR_HEIGHT - 5 * ENEMY_HEIGHT));
+        entity.put("startVelocityX", velocity(random));
+        entity.put("height", ENEMY_HEIGHT);
+        entity.put("image", String.format("slime%sa.png", color.substring(0, 1).toUpperCase()));
+        entity.put("behaviour", behaviour);
+        return entity;
+    }
+
+    private static double velocity(Random random) {
+        return (random.nextDouble() * 2.0 - 1.0) * MAX_START_VELOCITY_X;
+    }
+
+    private static int indexOf(
+            String[] values,
+            String value,
+            String kind) {
+        for (int i = 0; i < values.length; ++i) {
+            if (values[i].equals(value)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(String.format("%s is not a valid %s", value, kind));
+    }
+
+    public static class LevelGeneratorBuilder {
+        private double levelWidth = 2000.0;
+        private final int[][] enemyCounts = new int[BEHAVIOURS.length][COLORS.length];
+        private int staticCount = 0;
+        private int cloudCount = 0;
+        private long seed = 0;
+
+        public LevelGeneratorBuilder setLevelWidth(double levelWidth) {
+            if (!(levelWidth > 0)) {
+                throw new IllegalArgumentException(String.format("%s is not a valid level width", levelWidth));
+            }
+            this.levelWidth = levelWidth;
+            return this;
+        }
+
+        /**
+         * @param behaviour One of aggressive, scared or passive.
+         * @param color     One of red, green or blue.
+         * @param count     The number of enemies with this behaviour and color.
+         */
+        public LevelGeneratorBuilder setEnemies(
+                String behaviour,
+                String color,
+                int count) {
+            enemyCounts[indexOf(BEHAVIOURS, behaviour, "behaviour")][indexOf(COLORS, color, "color")] =
+                    requireCount(count);
+            return this;
+        }
+
+        public LevelGeneratorBuilder setStatics(int count) {
+            this.staticCount = requireCount(count);
+            return this;
+        }
+
+        public LevelGeneratorBuilder setClouds(int count) {
+            this.cloudCount = requireCount(count);
+            return this;
+        }
+
+        public LevelGeneratorBuilder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public LevelGenerator build() {
+            int[][] counts = new int[BEHAVIOURS.length][];
+            for (int i = 0; i < counts.length; ++i) {
+                counts[i] = enemyCounts[i].clone();
+            }
+            return new LevelGenerator(levelWidth, counts, staticCount, cloudCount, seed);
+        }
+
+        private static int requireCount(int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException(String.format("%d is not a valid entity count", count));
+            }
+            return count;
+        }
+    }
+}
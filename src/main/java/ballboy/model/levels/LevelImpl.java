@@ -11,28 +11,54 @@ import ballboy.model.entities.behaviour.PassiveEntityBehaviourStrategy;
 import ballboy.model.entities.behaviour.ScaredEnemyBehaviourStrategy;
 import ballboy.model.entities.observer.Observer;
 import ballboy.model.entities.observer.ScoreObserver;
+import ballboy.model.entities.store.EntityStore;
+import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
 import ballboy.model.entities.utilities.Vector2D;
 import ballboy.model.factories.EntityFactory;
 import ballboy.save.LevelMomento;
 import ballboy.save.Momento;
-import javafx.application.Platform;
 import javafx.scene.paint.Color;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
  * Level logic, with abstract factor methods.
+ * <p>
+ * The state of every entity lives in the level's EntityStore, which steps all kinematic states forward in bulk.
+ * Entity factories must therefore back the entities they create with rows of that store.
  */
 public class LevelImpl implements Level {
 
-    private final List<Entity> entities = new ArrayList<>();
+    private List<Entity> entities = new ArrayList<>();
+    /**
+     * True while the entity list is shared with a snapshot, in which case it is copied before it is changed.
+     */
+    private boolean entitiesShared = false;
+    /**
+     * Every entity the level started with, in order. Entities are only ever removed, so the current entities are a
+     * subsequence of these, which is how the state vector encodes them.
+     */
+    private List<Entity> allEntities;
+    /**
+     * The enemies removed since the last snapshot or delta, for incremental saves.
+     */
+    private final List<Entity> removedSinceDelta = new ArrayList<>();
+    /**
+     * True when entities may have come back since the last snapshot or delta, so that the next delta must hold the
+     * whole entity list.
+     */
+    private boolean entitiesReset = false;
     private final PhysicsEngine engine;
     private final EntityFactory entityFactory;
     private ControllableDynamicEntity<DynamicEntity> hero;
@@ -49,14 +75,27 @@ public class LevelImpl implements Level {
     private Observer green;
     private Observer blue;
     private Observer total;
+    private final Observer totalRelay = new TotalScoreRelay();
+    private Broadphase broadphase;
+    private EntityStore entityStore;
+    private StaticEntityIndex staticEntityIndex;
+    private ParallelStepper parallelStepper;
+    private final HeroSnapshot heroSnapshot = new HeroSnapshot();
+    private final List<DynamicEntity> dynamicEntities = new ArrayList<>();
+    private final List<StaticEntity> nearbyStaticEntities = new ArrayList<>();
+    private final CandidatePairs candidatePairs = new CandidatePairs();
 
     private final double frameDurationMilli;
 
+    private static final double DEFAULT_GRID_CELL_SIZE = 100.0;
+
     /**
      * A callback queue for post-update jobs. This is specifically useful for scheduling jobs mid-update
      * that require the level to be in a valid state.
      */
     private final Queue<Runnable> afterUpdateJobQueue = new ArrayDeque<>();
+    // created once, as the hero may be reset on every update while it keeps running into enemies
+    private final Runnable resetHeroJob = () -> this.hero.reset();
 
     public LevelImpl(
             JSONObject levelConfiguration,
@@ -87,7 +126,10 @@ public class LevelImpl implements Level {
             Observer red,
             Observer green,
             Observer blue,
-            Observer total) {
+            Observer total,
+            Broadphase broadphase,
+            EntityStore entityStore,
+            ParallelStepper parallelStepper) {
         this.engine = engine;
         this.entityFactory = entityFactory;
         this.frameDurationMilli = frameDurationMilli;
@@ -97,12 +139,17 @@ public class LevelImpl implements Level {
         this.floorHeight = floorHeight;
         this.floorColor = floorColor;
         this.finished = finished;
+        this.broadphase = broadphase.copy();
+        this.entityStore = entityStore.copy();
+        this.parallelStepper = parallelStepper;
         this.red = red.copy();
         this.green = green.copy();
         this.blue = blue.copy();
         if (total != null){
             this.total = total.copy();
         }
+        Set<Entity> enemySet = Collections.newSetFromMap(new IdentityHashMap<>());
+        enemySet.addAll(enemies);
         for (Entity entity : entities) {
             Entity newEntity = entity.copy(this);
             this.entities.add(newEntity);
@@ -113,28 +160,14 @@ public class LevelImpl implements Level {
             } else if (entity == squarecat) {
                 this.squarecat = newEntity;
             }
-            for (Entity enemy : enemies) {
-                JSONObject config = enemy.getConfig();
-                if (enemy == entity) {
-                    newEntity.addObserver(this.total);
-                    switch ((String) config.get("color")) {
-                        case "red":
-                            newEntity.addObserver(this.red);
-                            break;
-                        case "blue":
-                            newEntity.addObserver(this.blue);
-                            break;
-                        case "green":
-                            newEntity.addObserver(this.green);
-                            break;
-                        default:
-                            throw new ConfigurationParseException(
-                                    String.format("%s is not a valid color\n", config.get("color")));
-                    }
-                    this.enemies.add(newEntity);
-                }
+            if (enemySet.contains(entity)) {
+                addEnemyObservers(newEntity, entity.getConfig());
+                this.enemies.add(newEntity);
             }
         }
+        this.allEntities = new ArrayList<>(this.entities);
+        this.staticEntityIndex = new StaticEntityIndex(getStaticEntities());
+        this.heroSnapshot.capture(this.hero);
     }
 
 
@@ -145,6 +178,7 @@ public class LevelImpl implements Level {
      * @param levelConfiguration The configuration for the level.
      */
     private void initLevel(JSONObject levelConfiguration) {
+        this.entityStore = new EntityStore();
         this.levelWidth = ((Number) levelConfiguration.get("levelWidth")).doubleValue();
         this.levelHeight = ((Number) levelConfiguration.get("levelHeight")).doubleValue();
         this.levelGravity = ((Number) levelConfiguration.get("levelGravity")).doubleValue();
@@ -158,6 +192,9 @@ public class LevelImpl implements Level {
         String floorColorWeb = (String) floorJson.get("color");
         this.floorColor = Color.web(floorColorWeb);
 
+        this.broadphase = createBroadphase((JSONObject) levelConfiguration.get("broadphase"));
+        this.parallelStepper = createParallelStepper((JSONObject) levelConfiguration.get("parallelStep"));
+
         JSONArray generalEntities = (JSONArray) levelConfiguration.get("genericEntities");
         for (Object o : generalEntities) {
             JSONObject obj = (JSONObject) o;
@@ -165,20 +202,7 @@ public class LevelImpl implements Level {
             this.entities.add(unique_entity);
             if (obj.get("type").equals("enemy")){
                 enemies.add(unique_entity);
-                switch ((String) obj.get("color")) {
-                    case "red":
-                        unique_entity.addObserver(red);
-                        break;
-                    case "blue":
-                        unique_entity.addObserver(blue);
-                        break;
-                    case "green":
-                        unique_entity.addObserver(green);
-                        break;
-                    default:
-                        throw new ConfigurationParseException(
-                                String.format("%s is not a valid color\n", obj.get("color")));
-                }
+                addEnemyObservers(unique_entity, obj);
             }
         }
 
@@ -202,6 +226,84 @@ public class LevelImpl implements Level {
         JSONObject squareCatConfig = (JSONObject) levelConfiguration.get("squarecat");
         squarecat = entityFactory.createEntity(this,squareCatConfig);
         this.entities.add(squarecat);
+
+        this.allEntities = new ArrayList<>(this.entities);
+        this.staticEntityIndex = new StaticEntityIndex(getStaticEntities());
+        this.heroSnapshot.capture(this.hero);
+    }
+
+    /**
+     * Registers the score observers of the level with an enemy.
+     *
+     * @param enemy  The enemy.
+     * @param config The configuration of the enemy.
+     */
+    private void addEnemyObservers(
+            Entity enemy,
+            JSONObject config) {
+        enemy.addObserver(totalRelay);
+        switch ((String) config.get("color")) {
+            case "red":
+                enemy.addObserver(red);
+                break;
+            case "blue":
+                enemy.addObserver(blue);
+                break;
+            case "green":
+                enemy.addObserver(green);
+                break;
+            default:
+                throw new ConfigurationParseException(
+                        String.format("%s is not a valid color\n", config.get("color")));
+        }
+    }
+
+    /**
+     * Instantiates the configured broadphase, defaulting to a uniform grid when none is configured.
+     *
+     * @param broadphaseConfig The broadphase configuration of the level, which may be null.
+     * @return Broadphase The broadphase used for dynamic entity collisions.
+     */
+    @SuppressWarnings("unchecked")
+    private Broadphase createBroadphase(JSONObject broadphaseConfig) {
+        if (broadphaseConfig == null) {
+            return new UniformGridBroadphase(DEFAULT_GRID_CELL_SIZE, levelWidth, levelHeight);
+        }
+        String type = (String) broadphaseConfig.getOrDefault("type", "grid");
+        switch (type) {
+            case "grid":
+                double cellSize = ((Number) broadphaseConfig.getOrDefault("cellSize", DEFAULT_GRID_CELL_SIZE))
+                        .doubleValue();
+                if (!(cellSize > 0)) {
+                    throw new ConfigurationParseException(
+                            String.format("%s is not a valid grid cell size\n", cellSize));
+                }
+                return new UniformGridBroadphase(cellSize, levelWidth, levelHeight);
+            case "sweepAndPrune":
+                return new SweepAndPruneBroadphase();
+            case "bruteForce":
+                return new BruteForceBroadphase();
+            default:
+                throw new ConfigurationParseException(String.format("%s is not a valid broadphase\n", type));
+        }
+    }
+
+    /**
+     * Instantiates the parallel stepper on the common pool when one is configured.
+     *
+     * @param parallelConfig The parallel step configuration of the level, which may be null.
+     * @return ParallelStepper The parallel stepper, or null when the level is stepped sequentially.
+     */
+    private ParallelStepper createParallelStepper(JSONObject parallelConfig) {
+        if (parallelConfig == null) {
+            return null;
+        }
+        Object threshold = parallelConfig.get("threshold");
+        if (!(threshold instanceof Number) || ((Number) threshold).intValue() <= 0) {
+            throw new ConfigurationParseException(
+                    String.format("%s is not a valid parallel step threshold\n", threshold));
+        }
+        return new ParallelStepper(ForkJoinPool.commonPool(), ((Number) threshold).intValue());
     }
 
     @Override
@@ -209,9 +311,18 @@ public class LevelImpl implements Level {
         return Collections.unmodifiableList(entities);
     }
 
-    private List<DynamicEntity> getDynamicEntities() {
-        return entities.stream().filter(e -> e instanceof DynamicEntity).map(e -> (DynamicEntity) e).collect(
-                Collectors.toList());
+    /**
+     * Refreshes the reused list of dynamic entities in place, so that it can be collected every update without
+     * allocating.
+     */
+    private void collectDynamicEntities() {
+        dynamicEntities.clear();
+        for (int i = 0; i < entities.size(); ++i) {
+            Entity entity = entities.get(i);
+            if (entity instanceof DynamicEntity) {
+                dynamicEntities.add((DynamicEntity) entity);
+            }
+        }
     }
 
     private List<StaticEntity> getStaticEntities() {
@@ -256,60 +367,107 @@ public class LevelImpl implements Level {
 
     @Override
     public void update() {
-        List<DynamicEntity> dynamicEntities = getDynamicEntities();
+        collectDynamicEntities();
 
-        dynamicEntities.stream().forEach(e -> {
-            //sqaurecat does not affect by the gravity
-            if (e == squarecat){
-                e.update(frameDurationMilli, 0);
-            }
-            else{
-                e.update(frameDurationMilli, levelGravity);
+        if (parallelStepper == null) {
+            entityStore.integrate(frameDurationMilli, levelGravity);
+        } else {
+            parallelStepper.integrate(entityStore, frameDurationMilli, levelGravity);
+        }
+
+        // behaviours only see the hero as it was after integration, whatever order they run in
+        heroSnapshot.capture(hero);
+        if (parallelStepper == null) {
+            for (int i = 0; i < dynamicEntities.size(); ++i) {
+                dynamicEntities.get(i).behave(frameDurationMilli);
             }
-        });
+        } else {
+            parallelStepper.behave(dynamicEntities, frameDurationMilli);
+        }
+
+        candidatePairs.clear();
+        broadphase.findPairs(dynamicEntities, candidatePairs);
+        candidatePairs.group(dynamicEntities.size());
 
+        // each entity in turn resolves its pairs with the entities after it and then the statics, as collisions
+        // resolved earlier move the entities seen by later checks
         for (int i = 0; i < dynamicEntities.size(); ++i) {
             DynamicEntity dynamicEntityA = dynamicEntities.get(i);
+            for (int p = candidatePairs.getGroupStart(i); p < candidatePairs.getGroupEnd(i); ++p) {
+                handleDynamicPair(dynamicEntityA, dynamicEntities.get(candidatePairs.getSecond(p)));
+            }
 
-            for (int j = i + 1; j < dynamicEntities.size(); ++j) {
-                DynamicEntity dynamicEntityB = dynamicEntities.get(j);
-
-                if (dynamicEntityA.collidesWith(dynamicEntityB)) {
-                    dynamicEntityA.collideWith(dynamicEntityB);
-                    dynamicEntityB.collideWith(dynamicEntityA);
-                    if (!isHero(dynamicEntityA) && !isHero(dynamicEntityB)) {
-                        //sqaurecat does not affect by the collision of dynamic entity
-                        if (dynamicEntityA != squarecat && dynamicEntityB != squarecat){
-                            engine.resolveCollision(dynamicEntityA, dynamicEntityB);
-                        }
-                    }
-                }
+            //sqaurecat does not affect by the collision of static entity
+            if (dynamicEntityA == squarecat) {
+                continue;
             }
 
-            for (StaticEntity staticEntity : getStaticEntities()) {
-                //sqaurecat does not affect by the collision of static entity
-                if ( dynamicEntityA != squarecat && dynamicEntityA.collidesWith(staticEntity)) {
+            // only statics overlapping the volume swept since the last update can be hit
+            AxisAlignedBoundingBox volume = dynamicEntityA.getVolume();
+            double previousX = dynamicEntityA.getPositionBeforeLastUpdateX();
+            double previousY = dynamicEntityA.getPositionBeforeLastUpdateY();
+            nearbyStaticEntities.clear();
+            staticEntityIndex.query(
+                    Math.min(volume.getLeftX(), previousX),
+                    Math.min(volume.getTopY(), previousY),
+                    Math.max(volume.getRightX(), previousX + volume.getWidth()),
+                    Math.max(volume.getBottomY(), previousY + volume.getHeight()),
+                    nearbyStaticEntities);
+
+            for (int j = 0; j < nearbyStaticEntities.size(); ++j) {
+                StaticEntity staticEntity = nearbyStaticEntities.get(j);
+                if (dynamicEntityA.collidesWith(staticEntity)) {
                     dynamicEntityA.collideWith(staticEntity);
                     engine.resolveCollision(dynamicEntityA, staticEntity, this);
                 }
             }
         }
 
-        dynamicEntities.stream().forEach(e -> engine.enforceWorldLimits(e, this));
+        for (int i = 0; i < dynamicEntities.size(); ++i) {
+            engine.enforceWorldLimits(dynamicEntities.get(i), this);
+        }
 
-        afterUpdateJobQueue.forEach(j -> j.run());
-        afterUpdateJobQueue.clear();
+        Runnable job;
+        while ((job = afterUpdateJobQueue.poll()) != null) {
+            job.run();
+        }
+
+    }
 
+    /**
+     * Narrow phase for a candidate pair of dynamic entities reported by the broadphase.
+     *
+     * @param dynamicEntityA The first dynamic entity.
+     * @param dynamicEntityB The second dynamic entity.
+     */
+    private void handleDynamicPair(
+            DynamicEntity dynamicEntityA,
+            DynamicEntity dynamicEntityB) {
+        if (dynamicEntityA.collidesWith(dynamicEntityB)) {
+            dynamicEntityA.collideWith(dynamicEntityB);
+            dynamicEntityB.collideWith(dynamicEntityA);
+            if (!isHero(dynamicEntityA) && !isHero(dynamicEntityB)) {
+                //sqaurecat does not affect by the collision of dynamic entity
+                if (dynamicEntityA != squarecat && dynamicEntityB != squarecat){
+                    engine.resolveCollision(dynamicEntityA, dynamicEntityB);
+                }
+            }
+        }
     }
 
     @Override
     public double getHeroX() {
-        return hero.getPosition().getX();
+        return hero.getPositionX();
     }
 
     @Override
     public double getHeroY() {
-        return hero.getPosition().getY();
+        return hero.getPositionY();
+    }
+
+    @Override
+    public HeroSnapshot getHeroSnapshot() {
+        return heroSnapshot;
     }
 
     @Override
@@ -344,7 +502,7 @@ public class LevelImpl implements Level {
 
     @Override
     public void resetHero() {
-        afterUpdateJobQueue.add(() -> this.hero.reset());
+        afterUpdateJobQueue.add(resetHeroJob);
     }
 
     @Override
@@ -370,7 +528,15 @@ public class LevelImpl implements Level {
     @Override
     public void removeEnemy(Entity entity) {
         entity.updateObservers();
+        if (entitiesShared) {
+            entities = new ArrayList<>(entities);
+            entitiesShared = false;
+        }
         entities.remove(entity);
+        if (!entitiesReset) {
+            removedSinceDelta.add(entity);
+        }
+        entityStore.release(entity);
     }
 
     @Override
@@ -385,10 +551,8 @@ public class LevelImpl implements Level {
 
     @Override
     public void addTotalObserver(Observer observer) {
+        // enemies report to the relay, which forwards to the current total observer
         this.total = observer;
-        for (Entity enemy : enemies){
-            enemy.addObserver(this.total);
-        }
     }
 
     @Override
@@ -411,9 +575,199 @@ public class LevelImpl implements Level {
         return total;
     }
 
+    @Override
+    public EntityStore getEntityStore() {
+        return entityStore;
+    }
+
     @Override
     public Momento createMomento() {
-        return new LevelMomento(this.copy());
+        return new LevelMomento(snapshot());
+    }
+
+    /**
+     * Takes a snapshot of the state of this level. This does not copy any entities: the entity store and the entity
+     * list are shared with the snapshot copy-on-write, so only what changes afterwards is copied.
+     *
+     * @return LevelSnapshot The snapshot.
+     */
+    @Override
+    public LevelSnapshot snapshot() {
+        entitiesShared = true;
+        return new LevelSnapshot(this, entityStore.snapshot(), entities, red.getValue(), green.getValue(),
+                blue.getValue(), finished, getStateLength());
+    }
+
+    /**
+     * Puts this level back to the state of the provided snapshot, which stays unchanged and can be restored again.
+     * The total observer is not restored, as it is owned by the game engine.
+     *
+     * @param snapshot A snapshot taken from this level.
+     */
+    public void restore(LevelSnapshot snapshot) {
+        if (snapshot.getLevel() != this) {
+            throw new IllegalArgumentException("The snapshot was taken from a different level");
+        }
+        entityStore.restore(snapshot.store);
+        entities = snapshot.entities;
+        entitiesShared = true;
+        red.setValue(snapshot.red);
+        green.setValue(snapshot.green);
+        blue.setValue(snapshot.blue);
+        finished = snapshot.finished;
+        removedSinceDelta.clear();
+        entitiesReset = true;
+        // broadphases may keep state between updates that no longer matches the entities
+        broadphase = broadphase.copy();
+        heroSnapshot.capture(hero);
+    }
+
+    @Override
+    public void markDeltaBase() {
+        entityStore.clearChanges();
+        removedSinceDelta.clear();
+        entitiesReset = false;
+    }
+
+    @Override
+    public LevelDelta captureDelta() {
+        Entity[] removed = null;
+        List<Entity> currentEntities = null;
+        if (entitiesReset) {
+            currentEntities = entities;
+            entitiesShared = true;
+        } else {
+            removed = removedSinceDelta.toArray(new Entity[0]);
+        }
+        removedSinceDelta.clear();
+        entitiesReset = false;
+        return new LevelDelta(entityStore.captureChanges(), removed, currentEntities, red.getValue(),
+                green.getValue(), blue.getValue(), finished);
+    }
+
+    @Override
+    public void restore(
+            LevelSnapshot base,
+            List<LevelDelta> deltas) {
+        restore(base);
+        for (LevelDelta delta : deltas) {
+            entityStore.apply(delta.store);
+            if (delta.entities != null) {
+                entities = delta.entities;
+                entitiesShared = true;
+            } else if (delta.removedEntities.length > 0) {
+                if (entitiesShared) {
+                    entities = new ArrayList<>(entities);
+                    entitiesShared = false;
+                }
+                for (Entity removed : delta.removedEntities) {
+                    entities.remove(removed);
+                }
+            }
+            red.setValue(delta.red);
+            green.setValue(delta.green);
+            blue.setValue(delta.blue);
+            finished = delta.finished;
+        }
+        // the level is now in the state of the last delta, which the next delta is relative to
+        entityStore.clearChanges();
+        entitiesReset = false;
+        heroSnapshot.capture(hero);
+    }
+
+    @Override
+    public int getStateLength() {
+        // store rows, then one bit per entity, then the scores and the finished flag
+        return entityStore.getStateLength() + ((allEntities.size() + 63) >>> 6) + 4;
+    }
+
+    @Override
+    public void writeState(long[] state) {
+        int offset = entityStore.writeState(state, 0);
+        writeLevelState(state, offset, entities, red.getValue(), green.getValue(), blue.getValue(), finished);
+    }
+
+    /**
+     * Writes the part of the state vector that follows the entity store, which is shared with LevelSnapshot.
+     *
+     * @param state  The vector to be written into.
+     * @param offset The index after the words of the entity store.
+     */
+    void writeLevelState(
+            long[] state,
+            int offset,
+            List<Entity> currentEntities,
+            int redScore,
+            int greenScore,
+            int blueScore,
+            boolean isFinished) {
+        int membershipLength = (allEntities.size() + 63) >>> 6;
+        Arrays.fill(state, offset, offset + membershipLength, 0);
+        for (int i = 0, j = 0; i < allEntities.size() && j < currentEntities.size(); ++i) {
+            if (allEntities.get(i) == currentEntities.get(j)) {
+                state[offset + (i >>> 6)] |= 1L << i;
+                ++j;
+            }
+        }
+        offset += membershipLength;
+        state[offset++] = redScore;
+        state[offset++] = greenScore;
+        state[offset++] = blueScore;
+        state[offset] = isFinished ? 1 : 0;
+    }
+
+    @Override
+    public void readState(long[] state) {
+        int offset = entityStore.readState(state, 0);
+        List<Entity> restored = new ArrayList<>(entities.size());
+        for (int i = 0; i < allEntities.size(); ++i) {
+            if ((state[offset + (i >>> 6)] & (1L << i)) != 0) {
+                restored.add(allEntities.get(i));
+            }
+        }
+        entities = restored;
+        entitiesShared = false;
+        removedSinceDelta.clear();
+        entitiesReset = true;
+        offset += (allEntities.size() + 63) >>> 6;
+        red.setValue((int) state[offset++]);
+        green.setValue((int) state[offset++]);
+        blue.setValue((int) state[offset++]);
+        finished = state[offset] != 0;
+        // broadphases may keep state between updates that no longer matches the entities
+        broadphase = broadphase.copy();
+        heroSnapshot.capture(hero);
+    }
+
+    /**
+     * Forwards the score of removed enemies to the current total observer, so that the total observer can be
+     * replaced without changing the observers of every enemy.
+     */
+    private class TotalScoreRelay implements Observer {
+
+        @Override
+        public void update() {
+            if (total != null) {
+                total.update();
+            }
+        }
+
+        @Override
+        public int getValue() {
+            return total == null ? 0 : total.getValue();
+        }
+
+        @Override
+        public void setValue(int value) {
+            if (total != null) {
+                total.setValue(value);
+            }
+        }
+
+        @Override
+        public Observer copy() {
+            return new ScoreObserver(getValue());
+        }
     }
 
     @Override
@@ -435,6 +789,9 @@ public class LevelImpl implements Level {
                 red,
                 green,
                 blue,
-                total);
+                total,
+                broadphase,
+                entityStore,
+                parallelStepper);
     }
 }
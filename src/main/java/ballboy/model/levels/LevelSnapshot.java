@@ -0,0 +1,74 @@
+package ballboy.model.levels;
+
+import ballboy.model.Entity;
+import ballboy.model.entities.store.StoreSnapshot;
+
+import java.util.List;
+
+/**
+ * The state of a LevelImpl at one point in time, as taken by LevelImpl.snapshot().
+ * <p>
+ * The snapshot shares the entity store and the entity list of its level copy-on-write, so taking one is O(1). It
+ * never changes afterwards, and can be restored into its level any number of times.
+ */
+public final class LevelSnapshot {
+    private final LevelImpl level;
+    final StoreSnapshot store;
+    final List<Entity> entities;
+    final int red;
+    final int green;
+    final int blue;
+    final boolean finished;
+    private final int stateLength;
+
+    LevelSnapshot(
+            LevelImpl level,
+            StoreSnapshot store,
+            List<Entity> entities,
+            int red,
+            int green,
+            int blue,
+            boolean finished,
+            int stateLength) {
+        this.level = level;
+        this.store = store;
+        this.entities = entities;
+        this.red = red;
+        this.green = green;
+        this.blue = blue;
+        this.finished = finished;
+        this.stateLength = stateLength;
+    }
+
+    /**
+     * @return LevelImpl The level this snapshot was taken from.
+     */
+    public LevelImpl getLevel() {
+        return level;
+    }
+
+    /**
+     * @return int The length of the state vector written by writeState.
+     */
+    public int getStateLength() {
+        return stateLength;
+    }
+
+    /**
+     * Writes this snapshot in the layout of Level.writeState. Snapshots never change, so this may be called from
+     * any thread while the level keeps running.
+     *
+     * @param state A vector of at least getStateLength() words.
+     */
+    public void writeState(long[] state) {
+        int offset = store.writeState(state, 0);
+        level.writeLevelState(state, offset, entities, red, green, blue, finished);
+    }
+
+    /**
+     * Puts the level this snapshot was taken from back to the state of this snapshot.
+     */
+    public void restore() {
+        level.restore(this);
+    }
+}
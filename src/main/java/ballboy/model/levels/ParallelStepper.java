@@ -0,0 +1,129 @@
+package ballboy.model.levels;
+
+import ballboy.model.entities.DynamicEntity;
+import ballboy.model.entities.store.Archetype;
+import ballboy.model.entities.store.ArchetypeTable;
+import ballboy.model.entities.store.EntityStore;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Steps the integration and behaviour phases of an update on a ForkJoinPool.
+ * <p>
+ * Work is split in halves until a range holds no more than the threshold number of rows or entities, so batches
+ * at or below the threshold run sequentially on the calling thread. Tables are split on page boundaries, as pages
+ * are the unit in which rows are copied on write. Rows are integrated independently and each
+ * behaviour only writes the state of its own entity, reading the hero through the level's HeroSnapshot, so the
+ * result is identical to stepping sequentially.
+ */
+public class ParallelStepper {
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * @param pool      The pool the work is forked on.
+     * @param threshold The largest batch that is stepped without forking. Must be positive.
+     */
+    public ParallelStepper(
+            ForkJoinPool pool,
+            int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException(String.format("%d is not a valid parallel threshold", threshold));
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Steps the kinematic state of every live entity of the store forward.
+     *
+     * @param store        The store of the level.
+     * @param milliSeconds The duration that the entities are stepped forward by.
+     * @param levelGravity The current gravity to be applied in the downwards direction.
+     */
+    public void integrate(
+            EntityStore store,
+            double milliSeconds,
+            double levelGravity) {
+        for (Archetype archetype : Archetype.values()) {
+            ArchetypeTable table = store.getTable(archetype);
+            if (table.size() <= threshold) {
+                table.integrate(milliSeconds, levelGravity);
+            } else {
+                table.prepareWrite();
+                int pageThreshold = Math.max(1, threshold / ArchetypeTable.PAGE_SIZE);
+                pool.invoke(new RangeAction(0, table.getPageCount(), pageThreshold,
+                        (from, to) -> table.integratePages(from, to, milliSeconds, levelGravity)));
+            }
+        }
+    }
+
+    /**
+     * Runs the behaviour of every provided entity. This must directly follow integrate, with no copy or snapshot of
+     * the store taken in between. Behaviours write their own rows concurrently through ArchetypeTable.writePage,
+     * which is only safe because integrate has left every kinematic table with:
+     * <ul>
+     * <li>the page directory owned by the table, so no write replaces the directory;</li>
+     * <li>every page owned by the table, so no write replaces a page;</li>
+     * <li>the changed bit of every live row set, so no write touches the shared changed bits of a page.</li>
+     * </ul>
+     * Each behaviour then only writes the components and the version of its own row.
+     *
+     * @param entities     The dynamic entities of the level.
+     * @param milliSeconds The duration of the update.
+     */
+    public void behave(
+            List<DynamicEntity> entities,
+            double milliSeconds) {
+        if (entities.size() <= threshold) {
+            for (int i = 0; i < entities.size(); ++i) {
+                entities.get(i).behave(milliSeconds);
+            }
+        } else {
+            pool.invoke(new RangeAction(0, entities.size(), threshold, (from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    entities.get(i).behave(milliSeconds);
+                }
+            }));
+        }
+    }
+
+    /**
+     * @return int The largest batch that is stepped without forking.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    private interface RangeStep {
+        void run(int from, int to);
+    }
+
+    // actions are only ever forked on the pool, never serialized, and their steps are not serializable anyway
+    @SuppressWarnings("serial")
+    private static class RangeAction extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final RangeStep step;
+
+        RangeAction(int from, int to, int threshold, RangeStep step) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.step = step;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                step.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, middle, threshold, step), new RangeAction(middle, to, threshold, step));
+        }
+    }
+}
@@ -5,10 +5,11 @@ import ballboy.model.Level;
 import ballboy.model.entities.DynamicEntity;
 import ballboy.model.entities.StaticEntity;
 import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
-import ballboy.model.entities.utilities.Vector2D;
 
 /**
  * Primitive PhysicsEngine implementation.
+ * <p>
+ * All collision checks and responses work on primitive coordinates, so resolving a collision does not allocate.
  */
 public class PhysicsEngineImpl implements PhysicsEngine {
 
@@ -27,39 +28,40 @@ public class PhysicsEngineImpl implements PhysicsEngine {
             return;
         }
 
-        // previous position before the last update was called
-        Vector2D previousPosition = a.getPositionBeforeLastUpdate();
+        AxisAlignedBoundingBox bVolume = b.getVolume();
+        double aWidth = a.getWidth();
+        double aHeight = a.getHeight();
 
-        AxisAlignedBoundingBox aPreviousPositionVolume = a.getVolume().copy();
-        aPreviousPositionVolume.setTopLeft(previousPosition);
+        // previous position before the last update was called
+        double previousX = a.getPositionBeforeLastUpdateX();
+        double previousY = a.getPositionBeforeLastUpdateY();
 
         /*
          * collided prior to the most recent update, so no need to
          * resolve the collision as it would have been delt with before
          */
-        if (aPreviousPositionVolume.collidesWith(b.getVolume())) {
+        if (bVolume.collidesWith(previousX, previousY, previousX + aWidth, previousY + aHeight)) {
             return;
         }
 
         // volume with only the horizontal translation applied
-        AxisAlignedBoundingBox aHorizontallySteppedVolume = aPreviousPositionVolume.copy();
-        aHorizontallySteppedVolume.setTopLeft(a.getPosition().setY(previousPosition.getY()));
+        double steppedX = a.getPositionX();
 
-        if (aHorizontallySteppedVolume.collidesWith(b.getVolume())) { // horizontal collision
+        if (bVolume.collidesWith(steppedX, previousY, steppedX + aWidth, previousY + aHeight)) { // horizontal collision
             reflectX(a);
 
-            if (a.getPosition().isLeftOf(b.getVolume().getLeftX())) {
-                a.setPosition(new Vector2D(b.getVolume().getLeftX() - a.getWidth(), a.getPosition().getY()));
+            if (a.getPositionX() < bVolume.getLeftX()) {
+                a.setPosition(bVolume.getLeftX() - aWidth, a.getPositionY());
             } else {
-                a.setPosition(a.getPosition().setX(b.getVolume().getRightX()));
+                a.setPosition(bVolume.getRightX(), a.getPositionY());
             }
         } else { // vertical collision
             reflectY(a, level.getGravity());
 
-            if (a.getPosition().isAbove(b.getVolume().getTopY())) {
-                a.setPosition(a.getPosition().setY(b.getVolume().getTopY() - a.getHeight()));
+            if (a.getPositionY() < bVolume.getTopY()) {
+                a.setPosition(a.getPositionX(), bVolume.getTopY() - aHeight);
             } else {
-                a.setPosition(a.getPosition().setY(b.getVolume().getBottomY()));
+                a.setPosition(a.getPositionX(), bVolume.getBottomY());
             }
         }
     }
@@ -72,18 +74,22 @@ public class PhysicsEngineImpl implements PhysicsEngine {
             return;
         }
 
+        double aPreviousX = a.getPositionBeforeLastUpdateX();
+        double aPreviousY = a.getPositionBeforeLastUpdateY();
+        double aWidth = a.getWidth();
+        double aHeight = a.getHeight();
+
+        double bPreviousLeftX = b.getPositionBeforeLastUpdateX();
+        double bPreviousTopY = b.getPositionBeforeLastUpdateY();
+        double bPreviousRightX = bPreviousLeftX + b.getWidth();
+        double bPreviousBottomY = bPreviousTopY + b.getHeight();
 
         /*
          * if they collided in a previous update cycle then dont handle it, as
          * it would have been handled then
          */
-        AxisAlignedBoundingBox aVolumeBeforeUpdate = a.getVolume().copy();
-        aVolumeBeforeUpdate.setTopLeft(a.getPositionBeforeLastUpdate());
-
-        AxisAlignedBoundingBox bVolumeBeforeUpdate = b.getVolume().copy();
-        bVolumeBeforeUpdate.setTopLeft(b.getPositionBeforeLastUpdate());
-
-        if (aVolumeBeforeUpdate.collidesWith(bVolumeBeforeUpdate)) {
+        if (overlaps(aPreviousX, aPreviousY, aPreviousX + aWidth, aPreviousY + aHeight,
+                bPreviousLeftX, bPreviousTopY, bPreviousRightX, bPreviousBottomY)) {
             return;
         }
 
@@ -95,32 +101,32 @@ public class PhysicsEngineImpl implements PhysicsEngine {
          * step the previous volume only horizontally. If there is a collision it is treated as if the objects
          * collided in the horizontal axis. If not, then it is treated as if the objects collided vertically
          */
-        AxisAlignedBoundingBox aVolumeOnlySteppedHorizontally = aVolumeBeforeUpdate.copy();
-        aVolumeOnlySteppedHorizontally.setTopLeft(a.getPosition().setY(a.getPositionBeforeLastUpdate().getY()));
+        double aSteppedX = a.getPositionX();
 
-        boolean isHorizontalCollision = aVolumeOnlySteppedHorizontally.collidesWith(bVolumeBeforeUpdate);
+        boolean isHorizontalCollision = overlaps(aSteppedX, aPreviousY, aSteppedX + aWidth, aPreviousY + aHeight,
+                bPreviousLeftX, bPreviousTopY, bPreviousRightX, bPreviousBottomY);
         if (isHorizontalCollision) { // horizontal collision
-            double aVelocityX = a.getVelocity().getX();
-            double bVelocityX = b.getVelocity().getX();
+            double aVelocityX = a.getVelocityX();
+            double bVelocityX = b.getVelocityX();
 
             double aVelocityXNew =
                     ((aMass - bMass) / (aMass + bMass)) * aVelocityX + ((2 * bMass) / (aMass + bMass)) * bVelocityX;
             double bVelocityXNew =
                     ((2 * aMass) / (aMass + bMass)) * aVelocityX - ((aMass - bMass) / (aMass + bMass)) * bVelocityX;
 
-            a.setVelocity(a.getVelocity().setX(aVelocityXNew));
-            b.setVelocity(b.getVelocity().setX(bVelocityXNew));
+            a.setVelocity(aVelocityXNew, a.getVelocityY());
+            b.setVelocity(bVelocityXNew, b.getVelocityY());
         } else { // vertical collision
-            double aVelocityY = a.getVelocity().getY();
-            double bVelocityY = b.getVelocity().getY();
+            double aVelocityY = a.getVelocityY();
+            double bVelocityY = b.getVelocityY();
 
             double aVelocityYNew =
                     ((aMass - bMass) / (aMass + bMass)) * aVelocityY + ((2 * bMass) / (aMass + bMass)) * bVelocityY;
             double bVelocityYNew =
                     ((2 * aMass) / (aMass + bMass)) * aVelocityY - ((aMass - bMass) / (aMass + bMass)) * bVelocityY;
 
-            a.setVelocity(a.getVelocity().setY(aVelocityYNew));
-            b.setVelocity(b.getVelocity().setY(bVelocityYNew));
+            a.setVelocity(a.getVelocityX(), aVelocityYNew);
+            b.setVelocity(b.getVelocityX(), bVelocityYNew);
         }
     }
 
@@ -132,24 +138,42 @@ public class PhysicsEngineImpl implements PhysicsEngine {
             return;
         }
         // if outside horizontal boundaries and travelling in the wrong direction
-        if (a.getPosition().isRightOf(level.getLevelWidth()) && a.getVelocity().getX() > 0 || a.getPosition().isLeftOf(
-                0.0) && a.getVelocity().getX() < 0) {
+        if (a.getPositionX() > level.getLevelWidth() && a.getVelocityX() > 0 || a.getPositionX() < 0.0
+                && a.getVelocityX() < 0) {
             reflectX(a);
         }
 
         // below ground
-        if (a.getPosition().addY(a.getHeight()).isBelow(level.getFloorHeight()) && a.getVelocity().getY() > 0) {
+        if (a.getPositionY() + a.getHeight() > level.getFloorHeight() && a.getVelocityY() > 0) {
             reflectY(a, level.getGravity());
-            a.setPosition(a.getPosition().setY(level.getFloorHeight() - a.getHeight()));
+            a.setPosition(a.getPositionX(), level.getFloorHeight() - a.getHeight());
         }
 
         // above max height
-        if (a.getPosition().isAbove(0) && a.getVelocity().getY() < 0) {
+        if (a.getPositionY() < 0 && a.getVelocityY() < 0) {
             reflectY(a, level.getGravity());
         }
         return;
     }
 
+    /**
+     * Overlap test between two boxes given by their edges, matching {@link AxisAlignedBoundingBox#collidesWith}.
+     */
+    private static boolean overlaps(
+            double aLeftX,
+            double aTopY,
+            double aRightX,
+            double aBottomY,
+            double bLeftX,
+            double bTopY,
+            double bRightX,
+            double bBottomY) {
+        return aLeftX < bRightX &&
+                aRightX > bLeftX &&
+                aBottomY > bTopY &&
+                aTopY < bBottomY;
+    }
+
     /**
      * Reflects the provided entities motion in the horizontal axis.
      * <p>
@@ -159,8 +183,8 @@ public class PhysicsEngineImpl implements PhysicsEngine {
      */
     private void reflectX(DynamicEntity entity) {
         entity.setVelocity(
-                entity.getVelocity().addX(
-                        -1 * entity.getHorizontalAcceleration() * frameDurationMilli * 1e-3).reflectX()
+                -(entity.getVelocityX() + -1 * entity.getHorizontalAcceleration() * frameDurationMilli * 1e-3),
+                entity.getVelocityY()
         );
     }
 
@@ -175,7 +199,8 @@ public class PhysicsEngineImpl implements PhysicsEngine {
             DynamicEntity entity,
             double levelGravity) {
         entity.setVelocity(
-                entity.getVelocity().addY(-1 * levelGravity * frameDurationMilli * 1e-3).reflectY()
+                entity.getVelocityX(),
+                -(entity.getVelocityY() + -1 * levelGravity * frameDurationMilli * 1e-3)
         );
     }
 }
@@ -0,0 +1,144 @@
+package ballboy.model.levels;
+
+import ballboy.model.entities.StaticEntity;
+import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable spatial index over the static entities of a level.
+ * <p>
+ * The entities are sorted by their left edge and treated as an implicit balanced binary tree, with each
+ * node holding the furthest right edge of its subtree. This makes it an interval tree on the horizontal axis,
+ * answering overlap queries in O(log n + k) time.
+ */
+public class StaticEntityIndex {
+    private final StaticEntity[] entities;
+    private final int[] ordinals;
+    private final double[] leftX;
+    private final double[] rightX;
+    private final double[] topY;
+    private final double[] bottomY;
+    private final double[] subtreeMaxRightX;
+
+    private int[] hits = new int[16];
+    private int hitCount;
+
+    /**
+     * @param staticEntities The static entities to be indexed. These must not move for the lifetime of the index.
+     */
+    public StaticEntityIndex(List<StaticEntity> staticEntities) {
+        int size = staticEntities.size();
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> staticEntities.get(i).getVolume().getLeftX()));
+
+        entities = new StaticEntity[size];
+        ordinals = new int[size];
+        leftX = new double[size];
+        rightX = new double[size];
+        topY = new double[size];
+        bottomY = new double[size];
+        subtreeMaxRightX = new double[size];
+        for (int i = 0; i < size; ++i) {
+            StaticEntity entity = staticEntities.get(order[i]);
+            AxisAlignedBoundingBox volume = entity.getVolume();
+            entities[i] = entity;
+            ordinals[i] = order[i];
+            leftX[i] = volume.getLeftX();
+            rightX[i] = volume.getRightX();
+            topY[i] = volume.getTopY();
+            bottomY[i] = volume.getBottomY();
+        }
+        buildSubtree(0, size);
+    }
+
+    /**
+     * Finds every indexed entity overlapping the provided box. Results are appended in the order
+     * the entities were provided to the index.
+     *
+     * @param minX    The left of the queried box.
+     * @param minY    The top of the queried box.
+     * @param maxX    The right of the queried box.
+     * @param maxY    The bottom of the queried box.
+     * @param results The list the overlapping entities are appended to.
+     */
+    public void query(
+            double minX,
+            double minY,
+            double maxX,
+            double maxY,
+            List<StaticEntity> results) {
+        hitCount = 0;
+        querySubtree(0, entities.length, minX, minY, maxX, maxY);
+
+        // there are rarely more than a few hits, so an insertion sort restores the original order cheaply
+        for (int i = 1; i < hitCount; ++i) {
+            int hit = hits[i];
+            int j = i - 1;
+            while (j >= 0 && ordinals[hits[j]] > ordinals[hit]) {
+                hits[j + 1] = hits[j];
+                --j;
+            }
+            hits[j + 1] = hit;
+        }
+        for (int i = 0; i < hitCount; ++i) {
+            results.add(entities[hits[i]]);
+        }
+    }
+
+    /**
+     * @return int The number of indexed entities.
+     */
+    public int size() {
+        return entities.length;
+    }
+
+    private double buildSubtree(
+            int low,
+            int high) {
+        if (low >= high) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        int mid = (low + high) >>> 1;
+        double maxRightX = Math.max(rightX[mid], Math.max(buildSubtree(low, mid), buildSubtree(mid + 1, high)));
+        subtreeMaxRightX[mid] = maxRightX;
+        return maxRightX;
+    }
+
+    private void querySubtree(
+            int low,
+            int high,
+            double minX,
+            double minY,
+            double maxX,
+            double maxY) {
+        if (low >= high) {
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        if (subtreeMaxRightX[mid] <= minX) {
+            return;
+        }
+        querySubtree(low, mid, minX, minY, maxX, maxY);
+        // everything from mid onwards starts at or right of this node
+        if (leftX[mid] >= maxX) {
+            return;
+        }
+        if (rightX[mid] > minX && bottomY[mid] > minY && topY[mid] < maxY) {
+            addHit(mid);
+        }
+        querySubtree(mid + 1, high, minX, minY, maxX, maxY);
+    }
+
+    private void addHit(int position) {
+        if (hitCount == hits.length) {
+            hits = Arrays.copyOf(hits, hits.length * 2);
+        }
+        hits[hitCount++] = position;
+    }
+}
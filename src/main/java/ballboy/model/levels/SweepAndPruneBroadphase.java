@@ -0,0 +1,141 @@
+package ballboy.model.levels;
+
+import ballboy.model.entities.DynamicEntity;
+import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sort and sweep broadphase along the horizontal axis.
+ * <p>
+ * The order of the entities by their left edge is kept between updates and re-sorted with an insertion sort.
+ * Entities only move a few pixels per frame, so the previous order is nearly sorted and re-sorting takes close
+ * to O(n) time. This suits wide, horizontally scrolling levels better than a grid.
+ */
+public class SweepAndPruneBroadphase implements Broadphase {
+    private DynamicEntity[] trackedEntities = new DynamicEntity[0];
+    private int trackedCount = 0;
+
+    /*
+     * order[k] is the list index of the entity with the k-th smallest left edge, with the remaining arrays
+     * being aligned with order.
+     */
+    private int[] order = new int[0];
+    private double[] leftX = new double[0];
+    private double[] rightX = new double[0];
+    private double[] topY = new double[0];
+    private double[] bottomY = new double[0];
+
+    @Override
+    public void findPairs(
+            List<DynamicEntity> entities,
+            PairHandler pairHandler) {
+        int count = entities.size();
+        if (!isTracking(entities)) {
+            track(entities);
+        }
+
+        for (int k = 0; k < count; ++k) {
+            AxisAlignedBoundingBox volume = entities.get(order[k]).getVolume();
+            leftX[k] = volume.getLeftX();
+            rightX[k] = volume.getRightX();
+            topY[k] = volume.getTopY();
+            bottomY[k] = volume.getBottomY();
+        }
+
+        insertionSort(count);
+
+        for (int a = 0; a < count; ++a) {
+            for (int b = a + 1; b < count && leftX[b] < rightX[a]; ++b) {
+                if (topY[a] < bottomY[b] && bottomY[a] > topY[b]) {
+                    int first = Math.min(order[a], order[b]);
+                    int second = Math.max(order[a], order[b]);
+                    pairHandler.accept(first, second);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Broadphase copy() {
+        return new SweepAndPruneBroadphase();
+    }
+
+    /**
+     * @return boolean True if the provided entities are the same, in the same order, as those of the last update.
+     */
+    private boolean isTracking(List<DynamicEntity> entities) {
+        if (entities.size() != trackedCount) {
+            return false;
+        }
+        for (int i = 0; i < trackedCount; ++i) {
+            if (entities.get(i) != trackedEntities[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts tracking a changed list of entities. Entities that were already tracked keep their previous
+     * relative order, with new entities appended to be sorted into place.
+     */
+    private void track(List<DynamicEntity> entities) {
+        int count = entities.size();
+        Map<DynamicEntity, Integer> indices = new IdentityHashMap<>();
+        for (int i = 0; i < count; ++i) {
+            indices.put(entities.get(i), i);
+        }
+
+        int[] newOrder = new int[count];
+        int k = 0;
+        for (int previous = 0; previous < trackedCount; ++previous) {
+            Integer index = indices.remove(trackedEntities[order[previous]]);
+            if (index != null) {
+                newOrder[k++] = index;
+            }
+        }
+        for (int i = 0; i < count; ++i) {
+            if (indices.containsKey(entities.get(i))) {
+                newOrder[k++] = i;
+            }
+        }
+
+        order = newOrder;
+        trackedEntities = entities.toArray(new DynamicEntity[0]);
+        trackedCount = count;
+        if (leftX.length < count) {
+            leftX = new double[count];
+            rightX = new double[count];
+            topY = new double[count];
+            bottomY = new double[count];
+        }
+    }
+
+    private void insertionSort(int count) {
+        for (int k = 1; k < count; ++k) {
+            int index = order[k];
+            double left = leftX[k];
+            double right = rightX[k];
+            double top = topY[k];
+            double bottom = bottomY[k];
+
+            int j = k - 1;
+            while (j >= 0 && leftX[j] > left) {
+                order[j + 1] = order[j];
+                leftX[j + 1] = leftX[j];
+                rightX[j + 1] = rightX[j];
+                topY[j + 1] = topY[j];
+                bottomY[j + 1] = bottomY[j];
+                --j;
+            }
+            order[j + 1] = index;
+            leftX[j + 1] = left;
+            rightX[j + 1] = right;
+            topY[j + 1] = top;
+            bottomY[j + 1] = bottom;
+        }
+    }
+}
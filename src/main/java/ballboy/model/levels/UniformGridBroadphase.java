@@ -0,0 +1,134 @@
+package ballboy.model.levels;
+
+import ballboy.model.entities.DynamicEntity;
+import ballboy.model.entities.utilities.AxisAlignedBoundingBox;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Broadphase backed by a uniform grid covering the level.
+ * <p>
+ * The grid is rebuilt on every call with a counting sort, so no per-cell collections are allocated.
+ * Entities are inserted into every cell their volume overlaps, with anything outside the level clamped
+ * to the border cells. Only entities that share a cell are reported as a pair.
+ */
+public class UniformGridBroadphase implements Broadphase {
+    private final double cellSize;
+    private final double levelWidth;
+    private final double levelHeight;
+    private final int columns;
+    private final int rows;
+
+    /*
+     * cellStart[c] is the offset of cell c in cellEntries, with cellStart[c + 1] being its end.
+     */
+    private final int[] cellStart;
+    private final int[] cellCursor;
+    private int[] cellEntries = new int[0];
+    private int[] minColumn = new int[0];
+    private int[] maxColumn = new int[0];
+    private int[] minRow = new int[0];
+    private int[] maxRow = new int[0];
+
+    public UniformGridBroadphase(
+            double cellSize,
+            double levelWidth,
+            double levelHeight) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException(String.format("grid cell size must be positive, was %s", cellSize));
+        }
+        this.cellSize = cellSize;
+        this.levelWidth = levelWidth;
+        this.levelHeight = levelHeight;
+        this.columns = Math.max(1, (int) Math.ceil(levelWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(levelHeight / cellSize));
+        this.cellStart = new int[columns * rows + 1];
+        this.cellCursor = new int[columns * rows];
+    }
+
+    @Override
+    public void findPairs(
+            List<DynamicEntity> entities,
+            PairHandler pairHandler) {
+        int count = entities.size();
+        ensureCapacity(count);
+        Arrays.fill(cellStart, 0);
+
+        int entryCount = 0;
+        for (int i = 0; i < count; ++i) {
+            AxisAlignedBoundingBox volume = entities.get(i).getVolume();
+            minColumn[i] = column(volume.getLeftX());
+            maxColumn[i] = column(volume.getRightX());
+            minRow[i] = row(volume.getTopY());
+            maxRow[i] = row(volume.getBottomY());
+            for (int r = minRow[i]; r <= maxRow[i]; ++r) {
+                for (int c = minColumn[i]; c <= maxColumn[i]; ++c) {
+                    cellStart[r * columns + c + 1]++;
+                }
+            }
+            entryCount += (maxRow[i] - minRow[i] + 1) * (maxColumn[i] - minColumn[i] + 1);
+        }
+
+        for (int cell = 1; cell < cellStart.length; ++cell) {
+            cellStart[cell] += cellStart[cell - 1];
+        }
+
+        if (cellEntries.length < entryCount) {
+            cellEntries = new int[Math.max(entryCount, cellEntries.length * 2)];
+        }
+
+        System.arraycopy(cellStart, 0, cellCursor, 0, cellCursor.length);
+        for (int i = 0; i < count; ++i) {
+            for (int r = minRow[i]; r <= maxRow[i]; ++r) {
+                for (int c = minColumn[i]; c <= maxColumn[i]; ++c) {
+                    cellEntries[cellCursor[r * columns + c]++] = i;
+                }
+            }
+        }
+
+        for (int r = 0; r < rows; ++r) {
+            for (int c = 0; c < columns; ++c) {
+                int cell = r * columns + c;
+                int start = cellStart[cell];
+                int end = cellStart[cell + 1];
+                for (int p = start; p < end; ++p) {
+                    int a = cellEntries[p];
+                    for (int q = p + 1; q < end; ++q) {
+                        int b = cellEntries[q];
+                        /*
+                         * a pair sharing several cells is only reported from the first cell of their overlap
+                         */
+                        if (Math.max(minColumn[a], minColumn[b]) == c && Math.max(minRow[a], minRow[b]) == r) {
+                            pairHandler.accept(a, b);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Broadphase copy() {
+        return new UniformGridBroadphase(cellSize, levelWidth, levelHeight);
+    }
+
+    private int column(double x) {
+        return Math.min(columns - 1, Math.max(0, (int) Math.floor(x / cellSize)));
+    }
+
+    private int row(double y) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor(y / cellSize)));
+    }
+
+    private void ensureCapacity(int count) {
+        if (minColumn.length >= count) {
+            return;
+        }
+        int capacity = Math.max(count, minColumn.length * 2);
+        minColumn = new int[capacity];
+        maxColumn = new int[capacity];
+        minRow = new int[capacity];
+        maxRow = new int[capacity];
+    }
+}
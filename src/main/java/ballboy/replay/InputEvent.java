@@ -0,0 +1,59 @@
+package ballboy.replay;
+
+/**
+ * One record of an input log: a control call, or a state hash, stamped with the number of ticks completed before it.
+ */
+public class InputEvent {
+
+    public enum Type {
+        BOOST_HEIGHT,
+        DROP_HEIGHT,
+        MOVE_LEFT,
+        MOVE_RIGHT,
+        CREATE_SAVE,
+        LOAD,
+        /**
+         * A call to rewind, with the number of ticks as its value.
+         */
+        REWIND,
+        /**
+         * The state hash at the start of the next tick, with the hash as its value.
+         */
+        STATE_HASH,
+        /**
+         * The end of the session.
+         */
+        END
+    }
+
+    private final Type type;
+    private final long tick;
+    private final long value;
+
+    public InputEvent(
+            Type type,
+            long tick,
+            long value) {
+        this.type = type;
+        this.tick = tick;
+        this.value = value;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return long The number of ticks completed when the event happened.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return long The argument of a rewind or the hash of a state hash, and 0 otherwise.
+     */
+    public long getValue() {
+        return value;
+    }
+}
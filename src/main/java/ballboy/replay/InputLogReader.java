@@ -0,0 +1,108 @@
+package ballboy.replay;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads the events of a log written by InputLogWriter, in order.
+ */
+public class InputLogReader implements Closeable {
+    private static final InputEvent.Type[] TYPES = InputEvent.Type.values();
+
+    private final DataInputStream in;
+    private final String configuration;
+    private long lastTick = 0;
+    private boolean ended = false;
+
+    /**
+     * @param path The log file.
+     * @throws IOException Thrown if the file cannot be read, or is not an input log of this version.
+     */
+    public InputLogReader(Path path) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+        try {
+            if (in.readInt() != InputLogWriter.MAGIC) {
+                throw new IOException(String.format("%s is not an input log", path));
+            }
+            int version = in.readInt();
+            if (version != InputLogWriter.VERSION) {
+                throw new IOException(String.format("%s has unsupported input log version %d", path, version));
+            }
+            byte[] configurationBytes = new byte[in.readInt()];
+            in.readFully(configurationBytes);
+            configuration = new String(configurationBytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return String The configuration of the session, as JSON.
+     */
+    public String getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * @return InputEvent The next event, or null after the end of the log. A log that was cut short ends with a
+     * synthetic END event after its last complete record.
+     * @throws IOException Thrown if the file cannot be read, or holds an unknown record.
+     */
+    public InputEvent next() throws IOException {
+        if (ended) {
+            return null;
+        }
+        int typeOrdinal = in.read();
+        if (typeOrdinal < 0) {
+            return end();
+        }
+        if (typeOrdinal >= TYPES.length) {
+            throw new IOException(String.format("%d is not a valid input event type", typeOrdinal));
+        }
+        InputEvent.Type type = TYPES[typeOrdinal];
+        try {
+            long tick = lastTick + readVarint();
+            long value = 0;
+            if (type == InputEvent.Type.REWIND) {
+                value = readVarint();
+            } else if (type == InputEvent.Type.STATE_HASH) {
+                value = in.readLong();
+            }
+            lastTick = tick;
+            if (type == InputEvent.Type.END) {
+                ended = true;
+            }
+            return new InputEvent(type, tick, value);
+        } catch (EOFException e) {
+            return end();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private InputEvent end() {
+        ended = true;
+        return new InputEvent(InputEvent.Type.END, lastTick, 0);
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ballboy.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Appends input events to a log file.
+ * <p>
+ * A log starts with a header holding the configuration the session was played with, so that it can be replayed on
+ * its own:
+ * <pre>
+ *     int magic, int version, int configurationLength, byte[configurationLength] configuration (UTF-8 JSON)
+ * </pre>
+ * followed by one record per event: a type byte, the ticks since the previous record as a varint, and for rewinds
+ * and state hashes the value as a varint or 8 bytes. Records are only ever appended, and a log cut short by a crash
+ * can still be read up to its last complete record.
+ */
+public class InputLogWriter implements Closeable {
+    static final int MAGIC = 0x4242524C; // "BBRL"
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private long lastTick = 0;
+    private boolean closed = false;
+
+    /**
+     * @param path          The file the log is written to, which is replaced if it exists.
+     * @param configuration The configuration of the session, as JSON.
+     * @throws IOException Thrown if the file cannot be written.
+     */
+    public InputLogWriter(
+            Path path,
+            String configuration) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        byte[] configurationBytes = configuration.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(configurationBytes.length);
+        out.write(configurationBytes);
+    }
+
+    /**
+     * @param event The event to be appended. Events must be appended in tick order.
+     * @throws IOException Thrown if the file cannot be written.
+     */
+    public void write(InputEvent event) throws IOException {
+        if (event.getTick() < lastTick) {
+            throw new IllegalArgumentException("input events must be written in tick order");
+        }
+        out.writeByte(event.getType().ordinal());
+        writeVarint(event.getTick() - lastTick);
+        lastTick = event.getTick();
+        if (event.getType() == InputEvent.Type.REWIND) {
+            writeVarint(event.getValue());
+        } else if (event.getType() == InputEvent.Type.STATE_HASH) {
+            out.writeLong(event.getValue());
+        }
+    }
+
+    /**
+     * Writes the buffered records to the file.
+     *
+     * @throws IOException Thrown if the file cannot be written.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Ends the log at the provided tick and closes the file.
+     *
+     * @param tick The number of ticks completed in the session.
+     * @throws IOException Thrown if the file cannot be written.
+     */
+    public void close(long tick) throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            write(new InputEvent(InputEvent.Type.END, tick, 0));
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Ends the log at the tick of the last record and closes the file.
+     *
+     * @throws IOException Thrown if the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        close(lastTick);
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
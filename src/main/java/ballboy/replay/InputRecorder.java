@@ -0,0 +1,177 @@
+package ballboy.replay;
+
+import ballboy.model.GameEngine;
+import ballboy.model.InputQueue;
+import ballboy.model.Level;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A game engine that records every control call of the game engine it wraps into an input log, stamped with the
+ * number of ticks completed before it, along with a state hash every hashInterval ticks. Replayer plays the log back.
+ * <p>
+ * If the log cannot be written the game carries on unrecorded.
+ */
+public class InputRecorder implements GameEngine, Closeable {
+    private final GameEngine engine;
+    private final InputLogWriter log;
+    private final int hashInterval;
+    private final StateHasher hasher = new StateHasher();
+    private Runnable tickListener;
+    private long tick = 0;
+    private boolean recording = true;
+
+    /**
+     * @param engine       The game engine to be recorded, which must not have started ticking.
+     * @param log          The log the session is written to.
+     * @param hashInterval The number of ticks between state hashes.
+     */
+    public InputRecorder(
+            GameEngine engine,
+            InputLogWriter log,
+            int hashInterval) {
+        if (hashInterval <= 0) {
+            throw new IllegalArgumentException(String.format("%d is not a valid hash interval", hashInterval));
+        }
+        this.engine = engine;
+        this.log = log;
+        this.hashInterval = hashInterval;
+        engine.setTickListener(this::startTick);
+    }
+
+    /**
+     * Hashes the state every tick starts from, which includes the control calls made since the last tick.
+     */
+    private void startTick() {
+        if (tick % hashInterval == 0) {
+            record(InputEvent.Type.STATE_HASH, hasher.hash(engine));
+        }
+        ++tick;
+        if (tickListener != null) {
+            tickListener.run();
+        }
+    }
+
+    private void record(
+            InputEvent.Type type,
+            long value) {
+        if (!recording) {
+            return;
+        }
+        try {
+            log.write(new InputEvent(type, tick, value));
+        } catch (IOException e) {
+            recording = false;
+            System.out.println(e);
+        }
+    }
+
+    /**
+     * Ends the log with the final state hash.
+     *
+     * @throws IOException Thrown if the log cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        record(InputEvent.Type.STATE_HASH, hasher.hash(engine));
+        log.close(tick);
+    }
+
+    @Override
+    public Level getCurrentLevel() {
+        return engine.getCurrentLevel();
+    }
+
+    @Override
+    public void startLevel() {
+        engine.startLevel();
+    }
+
+    @Override
+    public boolean boostHeight() {
+        record(InputEvent.Type.BOOST_HEIGHT, 0);
+        return engine.boostHeight();
+    }
+
+    @Override
+    public boolean dropHeight() {
+        record(InputEvent.Type.DROP_HEIGHT, 0);
+        return engine.dropHeight();
+    }
+
+    @Override
+    public boolean moveLeft() {
+        record(InputEvent.Type.MOVE_LEFT, 0);
+        return engine.moveLeft();
+    }
+
+    @Override
+    public boolean moveRight() {
+        record(InputEvent.Type.MOVE_RIGHT, 0);
+        return engine.moveRight();
+    }
+
+    @Override
+    public void tick() {
+        engine.tick();
+    }
+
+    @Override
+    public int advance(double elapsedMilli) {
+        return engine.advance(elapsedMilli);
+    }
+
+    @Override
+    public double getInterpolationAlpha() {
+        return engine.getInterpolationAlpha();
+    }
+
+    @Override
+    public double getTickDurationMilli() {
+        return engine.getTickDurationMilli();
+    }
+
+    @Override
+    public InputQueue getInputQueue() {
+        return engine.getInputQueue();
+    }
+
+    @Override
+    public void setTickListener(Runnable listener) {
+        this.tickListener = listener;
+    }
+
+    @Override
+    public void setFinishListener(Runnable listener) {
+        engine.setFinishListener(listener);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return engine.isFinished();
+    }
+
+    @Override
+    public int getTotalScore() {
+        return engine.getTotalScore();
+    }
+
+    @Override
+    public void createSave() {
+        record(InputEvent.Type.CREATE_SAVE, 0);
+        engine.createSave();
+    }
+
+    @Override
+    public void load() {
+        record(InputEvent.Type.LOAD, 0);
+        engine.load();
+    }
+
+    @Override
+    public int rewind(int ticks) {
+        record(InputEvent.Type.REWIND, ticks);
+        return engine.rewind(ticks);
+    }
+}
@@ -0,0 +1,67 @@
+package ballboy.replay;
+
+/**
+ * The outcome of replaying an input log.
+ */
+public class ReplayResult {
+    private final long ticks;
+    private final long events;
+    private final long hashesChecked;
+    private final long mismatchTick;
+    private final long elapsedNanos;
+
+    ReplayResult(
+            long ticks,
+            long events,
+            long hashesChecked,
+            long mismatchTick,
+            long elapsedNanos) {
+        this.ticks = ticks;
+        this.events = events;
+        this.hashesChecked = hashesChecked;
+        this.mismatchTick = mismatchTick;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return long The number of ticks replayed.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return long The number of control calls replayed.
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * @return long The number of state hashes compared.
+     */
+    public long getHashesChecked() {
+        return hashesChecked;
+    }
+
+    /**
+     * @return long The tick the first state hash differed at, or -1 if every hash matched.
+     */
+    public long getMismatchTick() {
+        return mismatchTick;
+    }
+
+    /**
+     * @return boolean True if every state hash matched the recording.
+     */
+    public boolean isReproduced() {
+        return mismatchTick < 0;
+    }
+
+    /**
+     * @return long The time spent replaying, excluding building the levels, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
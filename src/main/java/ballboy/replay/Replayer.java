@@ -0,0 +1,91 @@
+package ballboy.replay;
+
+import ballboy.ConfigurationParseException;
+import ballboy.GameLoader;
+import ballboy.model.GameEngine;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Plays an input log back on a new game engine built from the configuration in the log, ticking as fast as possible
+ * and comparing every recorded state hash.
+ * <p>
+ * Replays never write save files: the save file is dropped from the configuration, so saves stay in memory. A
+ * session that loaded a save file written by an earlier process therefore does not replay from that file.
+ */
+public class Replayer {
+
+    /**
+     * @param path The input log.
+     * @return ReplayResult The outcome. Replaying stops at the first state hash that differs.
+     * @throws IOException Thrown if the log cannot be read, or holds an invalid configuration.
+     */
+    public static ReplayResult replay(Path path) throws IOException {
+        try (InputLogReader reader = new InputLogReader(path)) {
+            GameEngine engine = createGameEngine(reader.getConfiguration());
+            StateHasher hasher = new StateHasher();
+            long tick = 0;
+            long events = 0;
+            long hashesChecked = 0;
+            long start = System.nanoTime();
+
+            InputEvent event;
+            while ((event = reader.next()) != null) {
+                while (tick < event.getTick()) {
+                    engine.tick();
+                    ++tick;
+                }
+                switch (event.getType()) {
+                    case BOOST_HEIGHT:
+                        engine.boostHeight();
+                        break;
+                    case DROP_HEIGHT:
+                        engine.dropHeight();
+                        break;
+                    case MOVE_LEFT:
+                        engine.moveLeft();
+                        break;
+                    case MOVE_RIGHT:
+                        engine.moveRight();
+                        break;
+                    case CREATE_SAVE:
+                        engine.createSave();
+                        break;
+                    case LOAD:
+                        engine.load();
+                        break;
+                    case REWIND:
+                        engine.rewind((int) event.getValue());
+                        break;
+                    case STATE_HASH:
+                        ++hashesChecked;
+                        if (hasher.hash(engine) != event.getValue()) {
+                            return new ReplayResult(tick, events, hashesChecked, tick, System.nanoTime() - start);
+                        }
+                        continue;
+                    case END:
+                        continue;
+                }
+                ++events;
+            }
+            return new ReplayResult(tick, events, hashesChecked, -1, System.nanoTime() - start);
+        }
+    }
+
+    private static GameEngine createGameEngine(String configurationJson) throws IOException {
+        try {
+            JSONObject configuration = (JSONObject) new JSONParser().parse(configurationJson);
+            JSONObject savesConfig = (JSONObject) configuration.get("saves");
+            if (savesConfig != null) {
+                savesConfig.remove("file");
+            }
+            return GameLoader.createGameEngine(configuration);
+        } catch (ParseException | ClassCastException | ConfigurationParseException e) {
+            throw new IOException("the input log holds an invalid configuration", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ballboy.replay;
+
+import ballboy.model.GameEngine;
+import ballboy.model.Level;
+
+/**
+ * Hashes the simulation state of a game engine: the state vector of its current level and the total score. Two runs
+ * that hash the same after every tick are taken to have played out the same.
+ */
+public class StateHasher {
+    private long[] state = new long[0];
+
+    /**
+     * @param engine The game engine.
+     * @return long The hash of its current state.
+     */
+    public long hash(GameEngine engine) {
+        Level level = engine.getCurrentLevel();
+        int length = level.getStateLength();
+        if (state.length != length) {
+            state = new long[length];
+        }
+        level.writeState(state);
+        long hash = mix(length ^ (long) engine.getTotalScore() << 32);
+        for (long word : state) {
+            hash = mix(hash ^ word);
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value *= 0x9E3779B97F4A7C15L;
+        return value ^ (value >>> 32);
+    }
+}
@@ -0,0 +1,248 @@
+package ballboy.save;
+
+import ballboy.model.Level;
+import ballboy.model.levels.LevelSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes saves to a SaveFile in the background.
+ * <p>
+ * The simulation thread only takes a copy-on-write LevelSnapshot at a tick boundary, which is O(1). The snapshot is
+ * serialised and written by the executor while the simulation keeps running. At most one save is written at a time
+ * and at most one waits behind it: a save requested while another is waiting replaces it, so a slow disk coalesces
+ * saves instead of queueing them.
+ */
+public class AutosaveService {
+    private final Path path;
+    private final int intervalTicks;
+    private final long fingerprint;
+    private final Executor executor;
+
+    private final AtomicReference<PendingSave> pending = new AtomicReference<>();
+    private final AtomicBoolean writing = new AtomicBoolean(false);
+    private long ticksSinceSave = 0;
+
+    private final AtomicLong completedSaves = new AtomicLong();
+    private final AtomicLong coalescedSaves = new AtomicLong();
+    private final AtomicLong failedSaves = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private volatile long lastLatencyNanos = 0;
+    private volatile long lastCaptureNanos = 0;
+
+    /**
+     * Writes on a single daemon thread, so that a save in flight never keeps the game from exiting. Files are
+     * replaced atomically, so an interrupted save leaves the previous one intact.
+     *
+     * @param path          The file saves are written to.
+     * @param intervalTicks The number of ticks between autosaves, or 0 to only save when requested.
+     * @param fingerprint   The fingerprint of the level configuration, see SaveFile.fingerprint(Object).
+     */
+    public AutosaveService(
+            Path path,
+            int intervalTicks,
+            long fingerprint) {
+        this(path, intervalTicks, fingerprint, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * @param path          The file saves are written to.
+     * @param intervalTicks The number of ticks between autosaves, or 0 to only save when requested.
+     * @param fingerprint   The fingerprint of the level configuration, see SaveFile.fingerprint(Object).
+     * @param executor      The executor saves are serialised and written on.
+     */
+    public AutosaveService(
+            Path path,
+            int intervalTicks,
+            long fingerprint,
+            Executor executor) {
+        if (intervalTicks < 0) {
+            throw new IllegalArgumentException(String.format("%d is not a valid autosave interval", intervalTicks));
+        }
+        this.path = path;
+        this.intervalTicks = intervalTicks;
+        this.fingerprint = fingerprint;
+        this.executor = executor;
+    }
+
+    /**
+     * @return Path The file saves are written to.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return long The fingerprint of the level configuration written into every save.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Counts a tick, saving once every intervalTicks. This must be called at a tick boundary on the simulation
+     * thread.
+     *
+     * @param level      The current level.
+     * @param levelIndex The index of the current level.
+     * @param levelCount The number of levels of the game.
+     * @param totalScore The current total score.
+     */
+    public void onTick(
+            Level level,
+            int levelIndex,
+            int levelCount,
+            int totalScore) {
+        if (intervalTicks == 0 || ++ticksSinceSave < intervalTicks) {
+            return;
+        }
+        save(level, levelIndex, levelCount, totalScore);
+    }
+
+    /**
+     * Captures the level now and writes it in the background. This must be called at a tick boundary on the
+     * simulation thread.
+     *
+     * @param level      The level to be saved.
+     * @param levelIndex The index of the level.
+     * @param levelCount The number of levels of the game.
+     * @param totalScore The current total score.
+     */
+    public void save(
+            Level level,
+            int levelIndex,
+            int levelCount,
+            int totalScore) {
+        ticksSinceSave = 0;
+        long start = System.nanoTime();
+        PendingSave save = new PendingSave(level.snapshot(), levelIndex, levelCount, totalScore, start);
+        lastCaptureNanos = System.nanoTime() - start;
+
+        if (pending.getAndSet(save) != null) {
+            coalescedSaves.incrementAndGet();
+        }
+        if (writing.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Writes the waiting save until there is none. Only one drain runs at a time.
+     */
+    private void drain() {
+        while (true) {
+            PendingSave save = pending.getAndSet(null);
+            if (save == null) {
+                writing.set(false);
+                // a save may have been requested after the slot was found empty, but before writing was cleared
+                if (pending.get() == null || !writing.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            write(save);
+        }
+    }
+
+    private void write(PendingSave save) {
+        long[] state = new long[save.snapshot.getStateLength()];
+        save.snapshot.writeState(state);
+        try {
+            new SaveFile(fingerprint, save.levelCount, save.levelIndex, save.totalScore, state).write(path);
+        } catch (IOException e) {
+            failedSaves.incrementAndGet();
+            System.out.println(e);
+            return;
+        }
+        long latency = System.nanoTime() - save.capturedNanos;
+        lastLatencyNanos = latency;
+        totalLatencyNanos.addAndGet(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        completedSaves.incrementAndGet();
+    }
+
+    /**
+     * @return long The number of saves written.
+     */
+    public long getCompletedSaves() {
+        return completedSaves.get();
+    }
+
+    /**
+     * @return long The number of saves replaced by a newer one before they were written.
+     */
+    public long getCoalescedSaves() {
+        return coalescedSaves.get();
+    }
+
+    /**
+     * @return long The number of saves that could not be written.
+     */
+    public long getFailedSaves() {
+        return failedSaves.get();
+    }
+
+    /**
+     * @return long The time the simulation thread spent capturing the last save, in nanoseconds.
+     */
+    public long getLastCaptureNanos() {
+        return lastCaptureNanos;
+    }
+
+    /**
+     * @return long The time from capturing the last written save to it being on disk, in nanoseconds.
+     */
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    /**
+     * @return long The longest time from capturing a save to it being on disk, in nanoseconds.
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    /**
+     * @return long The mean time from capturing a save to it being on disk, in nanoseconds.
+     */
+    public long getMeanLatencyNanos() {
+        long completed = completedSaves.get();
+        return completed == 0 ? 0 : totalLatencyNanos.get() / completed;
+    }
+
+    /**
+     * A captured save waiting to be written.
+     */
+    private static class PendingSave {
+        private final LevelSnapshot snapshot;
+        private final int levelIndex;
+        private final int levelCount;
+        private final int totalScore;
+        private final long capturedNanos;
+
+        private PendingSave(
+                LevelSnapshot snapshot,
+                int levelIndex,
+                int levelCount,
+                int totalScore,
+                long capturedNanos) {
+            this.snapshot = snapshot;
+            this.levelIndex = levelIndex;
+            this.levelCount = levelCount;
+            this.totalScore = totalScore;
+            this.capturedNanos = capturedNanos;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ballboy.save;
+
+import ballboy.model.Level;
+import ballboy.model.levels.LevelDelta;
+import ballboy.model.levels.LevelSnapshot;
+
+import java.util.List;
+
+/**
+ * A save of a level as a base snapshot followed by the deltas captured after it, see SaveChain.
+ */
+public class IncrementalLevelMomento implements Momento {
+    private final LevelSnapshot base;
+    private final List<LevelDelta> deltas;
+
+    IncrementalLevelMomento(
+            LevelSnapshot base,
+            List<LevelDelta> deltas) {
+        this.base = base;
+        this.deltas = deltas;
+    }
+
+    @Override
+    public Level load() {
+        Level level = base.getLevel();
+        level.restore(base, deltas);
+        return level;
+    }
+}
@@ -1,16 +1,21 @@
 package ballboy.save;
 
 import ballboy.model.Level;
+import ballboy.model.levels.LevelSnapshot;
 
+/**
+ * A save of a level, holding a copy-on-write snapshot of its state rather than a copy of the level.
+ */
 public class LevelMomento implements Momento{
-    private Level level;
+    private final LevelSnapshot snapshot;
 
-    public LevelMomento(Level level){
-        this.level = level;
+    public LevelMomento(LevelSnapshot snapshot){
+        this.snapshot = snapshot;
     }
 
     @Override
     public Level load() {
-        return level;
+        snapshot.restore();
+        return snapshot.getLevel();
     }
 }
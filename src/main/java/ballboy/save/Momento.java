@@ -7,7 +7,9 @@ import ballboy.model.Level;
  */
 public interface Momento {
     /**
-     * @return Level stored in the Momento
+     * Restores the saved state into the level it was taken from. A Momento can be loaded any number of times.
+     *
+     * @return Level The level stored in the Momento, in its saved state.
      */
     Level load();
 }
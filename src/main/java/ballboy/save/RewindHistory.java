@@ -0,0 +1,231 @@
+package ballboy.save;
+
+import ballboy.model.Level;
+
+/**
+ * A bounded history of the recent states of one level, for rewinding it by a number of ticks.
+ * <p>
+ * Every captured state is stored as a compact binary frame (see StateDeltaCodec) in a fixed-size byte ring, rather
+ * than as a copy of the level. Every keyframeInterval-th frame is a keyframe holding the whole state, and the frames
+ * in between are deltas against the frame before them. The oldest frames are evicted once the ring runs out of bytes
+ * or frames, together with the deltas that depend on an evicted keyframe, so the history never holds more than the
+ * byte budget however large the level is.
+ * <p>
+ * Rewinding decodes one keyframe and at most keyframeInterval - 1 deltas, however far back it goes and however long
+ * the history is.
+ */
+public class RewindHistory {
+    private final byte[] ring;
+    private final int captureInterval;
+    private final int keyframeInterval;
+
+    private final int[] frameOffsets;
+    private final int[] frameLengths;
+    private final long[] frameTicks;
+    private final boolean[] keyframes;
+    private int oldestFrame = 0;
+    private int frameCount = 0;
+    private int writeOffset = 0;
+    private int framesSinceKeyframe = 0;
+
+    private long tick = 0;
+    private long[] olderState = new long[0];
+    private long[] previousState = new long[0];
+    private long[] state = new long[0];
+    private byte[] encoded = new byte[0];
+
+    /**
+     * @param byteBudget       The number of bytes frames may take up.
+     * @param maxFrames        The largest number of frames kept, whatever their size.
+     * @param captureInterval  The number of ticks between captured states.
+     * @param keyframeInterval The number of frames between keyframes.
+     */
+    public RewindHistory(
+            int byteBudget,
+            int maxFrames,
+            int captureInterval,
+            int keyframeInterval) {
+        if (byteBudget <= 0 || maxFrames <= 0 || captureInterval <= 0 || keyframeInterval <= 0) {
+            throw new IllegalArgumentException("rewind settings must be positive");
+        }
+        this.ring = new byte[byteBudget];
+        this.captureInterval = captureInterval;
+        this.keyframeInterval = keyframeInterval;
+        this.frameOffsets = new int[maxFrames];
+        this.frameLengths = new int[maxFrames];
+        this.frameTicks = new long[maxFrames];
+        this.keyframes = new boolean[maxFrames];
+    }
+
+    /**
+     * Drops the history and starts a new one from the current state of the provided level.
+     *
+     * @param level The level whose states are recorded from now on.
+     */
+    public void reset(Level level) {
+        frameCount = 0;
+        writeOffset = 0;
+        tick = 0;
+        int length = level.getStateLength();
+        if (state.length != length) {
+            olderState = new long[length];
+            previousState = new long[length];
+            state = new long[length];
+            encoded = new byte[StateDeltaCodec.maxEncodedLength(length)];
+        }
+        capture(level);
+    }
+
+    /**
+     * Records that the level has been stepped forward by one tick, capturing its state every captureInterval ticks.
+     *
+     * @param level The level passed to the last reset.
+     */
+    public void record(Level level) {
+        ++tick;
+        if (tick % captureInterval == 0) {
+            capture(level);
+        }
+    }
+
+    /**
+     * Puts the level back to the newest captured state that is at least the provided number of ticks old, or to the
+     * oldest captured state if the history does not reach that far. Newer frames are discarded.
+     *
+     * @param level The level passed to the last reset.
+     * @param ticks The number of ticks to go back by.
+     * @return int The number of ticks actually gone back by.
+     */
+    public int rewind(
+            Level level,
+            int ticks) {
+        if (frameCount == 0 || ticks <= 0) {
+            return 0;
+        }
+        long targetTick = tick - ticks;
+        int target = frameCount - 1;
+        while (target > 0 && frameTicks[frameIndex(target)] > targetTick) {
+            --target;
+        }
+        int keyframe = target;
+        while (!keyframes[frameIndex(keyframe)]) {
+            --keyframe;
+        }
+
+        StateDeltaCodec.decode(ring, frameOffsets[frameIndex(keyframe)], null, null, previousState);
+        for (int frame = keyframe + 1; frame <= target; ++frame) {
+            StateDeltaCodec.decode(ring, frameOffsets[frameIndex(frame)], frame - keyframe >= 2 ? olderState : null,
+                    previousState, state);
+            rotateStates();
+        }
+        level.readState(previousState);
+
+        long rewoundTicks = tick - frameTicks[frameIndex(target)];
+        tick = frameTicks[frameIndex(target)];
+        frameCount = target + 1;
+        framesSinceKeyframe = target - keyframe;
+        int newest = frameIndex(target);
+        writeOffset = frameOffsets[newest] + frameLengths[newest];
+        return (int) rewoundTicks;
+    }
+
+    /**
+     * @return int The number of captured states held.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return int The number of bytes taken up by the held frames.
+     */
+    public int getUsedBytes() {
+        int used = 0;
+        for (int frame = 0; frame < frameCount; ++frame) {
+            used += frameLengths[frameIndex(frame)];
+        }
+        return used;
+    }
+
+    private void capture(Level level) {
+        level.writeState(state);
+        boolean keyframe = frameCount == 0 || framesSinceKeyframe + 1 >= keyframeInterval;
+        int length = keyframe ? StateDeltaCodec.encode(null, null, state, encoded)
+                : StateDeltaCodec.encode(framesSinceKeyframe > 0 ? olderState : null, previousState, state, encoded);
+        int offset = makeRoom(length);
+        if (!keyframe && frameCount == 0) {
+            // the keyframe this delta depends on has been evicted to make room for it
+            keyframe = true;
+            length = StateDeltaCodec.encode(null, null, state, encoded);
+            offset = makeRoom(length);
+        }
+        if (offset < 0) {
+            // a single frame is larger than the budget, so this level cannot be rewound at all
+            frameCount = 0;
+            return;
+        }
+
+        System.arraycopy(encoded, 0, ring, offset, length);
+        int index = frameIndex(frameCount);
+        frameOffsets[index] = offset;
+        frameLengths[index] = length;
+        frameTicks[index] = tick;
+        keyframes[index] = keyframe;
+        ++frameCount;
+        framesSinceKeyframe = keyframe ? 0 : framesSinceKeyframe + 1;
+        writeOffset = offset + length;
+        rotateStates();
+    }
+
+    /**
+     * Makes the state just encoded or decoded the previous one, and the previous one the older one.
+     */
+    private void rotateStates() {
+        long[] swap = olderState;
+        olderState = previousState;
+        previousState = state;
+        state = swap;
+    }
+
+    /**
+     * Evicts the oldest frames until the provided number of bytes and a frame slot are free after the newest frame.
+     *
+     * @param length The length of the frame to be added.
+     * @return int The offset the frame can be written at, or -1 if it can never fit.
+     */
+    private int makeRoom(int length) {
+        if (length > ring.length) {
+            return -1;
+        }
+        if (frameCount == 0) {
+            writeOffset = 0;
+        }
+        // frames are laid out in order around the ring, so the space needed is the oldest frames after the newest
+        boolean wrap = writeOffset + length > ring.length;
+        while (frameCount > 0 && (frameCount == frameOffsets.length
+                || (wrap ? overlapsOldest(writeOffset, ring.length) || overlapsOldest(0, length)
+                : overlapsOldest(writeOffset, writeOffset + length)))) {
+            evictOldest();
+        }
+        return wrap ? 0 : writeOffset;
+    }
+
+    private boolean overlapsOldest(
+            int from,
+            int to) {
+        int oldestOffset = frameOffsets[oldestFrame];
+        return oldestOffset < to && oldestOffset + frameLengths[oldestFrame] > from;
+    }
+
+    private void evictOldest() {
+        do {
+            oldestFrame = frameIndex(1);
+            --frameCount;
+            // deltas cannot be decoded without the keyframe before them
+        } while (frameCount > 0 && !keyframes[oldestFrame]);
+    }
+
+    private int frameIndex(int frame) {
+        return (oldestFrame + frame) % frameOffsets.length;
+    }
+}
@@ -0,0 +1,62 @@
+package ballboy.save;
+
+import ballboy.model.Level;
+import ballboy.model.levels.LevelDelta;
+import ballboy.model.levels.LevelSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates incremental saves of a level: a base snapshot, followed by one delta per save holding only the store rows
+ * written, the enemies removed and the scores changed since the save before it.
+ * <p>
+ * The chain is consolidated into a new base snapshot once it holds consolidationInterval deltas, so that loading
+ * applies a bounded number of deltas. The base is a copy-on-write snapshot, so consolidating does not copy the level
+ * either. A new base is also taken whenever the saved level changes.
+ */
+public class SaveChain {
+    private final int consolidationInterval;
+    private LevelSnapshot base;
+    private List<LevelDelta> deltas = Collections.emptyList();
+
+    /**
+     * @param consolidationInterval The number of deltas after which the next save takes a new base snapshot.
+     */
+    public SaveChain(int consolidationInterval) {
+        if (consolidationInterval <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("%d is not a valid consolidation interval", consolidationInterval));
+        }
+        this.consolidationInterval = consolidationInterval;
+    }
+
+    /**
+     * Saves the current state of the level. Earlier saves from this chain stay valid.
+     *
+     * @param level The level to be saved.
+     * @return Momento The save, which restores the level in place when loaded.
+     */
+    public Momento save(Level level) {
+        if (base == null || base.getLevel() != level || deltas.size() >= consolidationInterval) {
+            base = level.snapshot();
+            level.markDeltaBase();
+            deltas = Collections.emptyList();
+        } else {
+            // earlier momentos hold the previous list, so it is never changed
+            List<LevelDelta> extended = new ArrayList<>(deltas.size() + 1);
+            extended.addAll(deltas);
+            extended.add(level.captureDelta());
+            deltas = Collections.unmodifiableList(extended);
+        }
+        return new IncrementalLevelMomento(base, deltas);
+    }
+
+    /**
+     * @return int The number of deltas after the current base.
+     */
+    public int getDeltaCount() {
+        return deltas.size();
+    }
+}
@@ -0,0 +1,218 @@
+package ballboy.save;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A save that outlives the process: the level index, the total score and the state vector of the saved level, as
+ * written by Level.writeState, along with a fingerprint of the level configuration it was saved from.
+ * <p>
+ * The file is a fixed header followed by the raw state words and a CRC32 of everything before it, all big-endian:
+ * <pre>
+ *     int magic, int version, int levelCount, int levelIndex, int totalScore, int stateLength, long fingerprint,
+ *     long[stateLength] state, int crc32
+ * </pre>
+ * A state vector only makes sense for the levels it was written from, and a different configuration can have state
+ * vectors of the same length, so a save must only be loaded when its fingerprint matches the configured levels.
+ * Files are written through a FileChannel to a temporary file that then replaces the save, so a crash while saving
+ * leaves the previous save intact. They are read through a memory-mapped buffer and restored into the levels that
+ * were already built from the configuration, so loading neither parses JSON nor runs the entity factories.
+ */
+public class SaveFile {
+    private static final int MAGIC = 0x42425356; // "BBSV"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES + Long.BYTES;
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final long fingerprint;
+    private final int levelCount;
+    private final int levelIndex;
+    private final int totalScore;
+    private final long[] state;
+
+    /**
+     * @param fingerprint The fingerprint of the level configuration, see fingerprint(Object).
+     * @param levelCount  The number of levels of the game, which a loading game must match.
+     * @param levelIndex  The index of the saved level.
+     * @param totalScore  The total score when the save was made.
+     * @param state       The state vector of the saved level.
+     */
+    public SaveFile(
+            long fingerprint,
+            int levelCount,
+            int levelIndex,
+            int totalScore,
+            long[] state) {
+        this.fingerprint = fingerprint;
+        this.levelCount = levelCount;
+        this.levelIndex = levelIndex;
+        this.totalScore = totalScore;
+        this.state = state;
+    }
+
+    /**
+     * Hashes a level configuration, with the keys of every object sorted so that the hash does not depend on the
+     * order the keys were parsed or stored in.
+     *
+     * @param levelsConfig The parsed level configuration, such as the levels array of config.json.
+     * @return long The fingerprint of the configuration.
+     */
+    public static long fingerprint(Object levelsConfig) {
+        StringBuilder canonical = new StringBuilder();
+        appendCanonical(levelsConfig, canonical);
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < canonical.length(); ++i) {
+            hash = (hash ^ canonical.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static void appendCanonical(
+            Object value,
+            StringBuilder canonical) {
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            List<String> keys = new ArrayList<>();
+            for (Object key : map.keySet()) {
+                keys.add(String.valueOf(key));
+            }
+            keys.sort(null);
+            canonical.append('{');
+            for (String key : keys) {
+                canonical.append(key).append(':');
+                appendCanonical(map.get(key), canonical);
+                canonical.append(',');
+            }
+            canonical.append('}');
+        } else if (value instanceof List) {
+            canonical.append('[');
+            for (Object element : (List<?>) value) {
+                appendCanonical(element, canonical);
+                canonical.append(',');
+            }
+            canonical.append(']');
+        } else if (value instanceof String) {
+            canonical.append('"').append(value).append('"');
+        } else {
+            canonical.append(value);
+        }
+    }
+
+    /**
+     * @return long The fingerprint of the level configuration the save was made from.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    public int getLevelIndex() {
+        return levelIndex;
+    }
+
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    /**
+     * @return long[] The state vector of the saved level, to be passed to Level.readState.
+     */
+    public long[] getState() {
+        return state;
+    }
+
+    /**
+     * Writes this save, replacing any file at the path once it has been written completely.
+     *
+     * @param path The path of the save.
+     * @throws IOException Thrown if the file cannot be written.
+     */
+    public void write(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + state.length * Long.BYTES + Integer.BYTES);
+        buffer.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(levelCount)
+                .putInt(levelIndex)
+                .putInt(totalScore)
+                .putInt(state.length)
+                .putLong(fingerprint);
+        buffer.asLongBuffer().put(state);
+        buffer.position(buffer.position() + state.length * Long.BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @param path The path of a save written by write.
+     * @return SaveFile The save.
+     * @throws IOException Thrown if the file cannot be read, or is not a valid save of this version.
+     */
+    public static SaveFile read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES + Integer.BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new IOException(String.format("%s is not a valid save", path));
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(String.format("%s is not a valid save", path));
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException(String.format("%s has unsupported save version %d", path, version));
+            }
+            int levelCount = buffer.getInt();
+            int levelIndex = buffer.getInt();
+            int totalScore = buffer.getInt();
+            int stateLength = buffer.getInt();
+            long fingerprint = buffer.getLong();
+            if (stateLength < 0 || fileSize != HEADER_BYTES + (long) stateLength * Long.BYTES + Integer.BYTES) {
+                throw new IOException(String.format("%s is truncated", path));
+            }
+
+            int checksumPosition = (int) fileSize - Integer.BYTES;
+            CRC32 crc = new CRC32();
+            ByteBuffer checked = buffer.duplicate();
+            checked.position(0).limit(checksumPosition);
+            crc.update(checked);
+            if (buffer.getInt(checksumPosition) != (int) crc.getValue()) {
+                throw new IOException(String.format("%s failed its checksum", path));
+            }
+
+            long[] state = new long[stateLength];
+            buffer.asLongBuffer().get(state);
+            return new SaveFile(fingerprint, levelCount, levelIndex, totalScore, state);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ballboy.save;
+
+/**
+ * Compact binary encoding of level state vectors, as written by Level.writeState.
+ * <p>
+ * Each word of a frame is stored as its XOR with a prediction from the frames before it: zero for keyframes, the
+ * previous frame for the first delta, and a linear extrapolation of the two previous frames after that. Most words
+ * of a level either do not change between ticks or change at a steady rate, so the XOR is mostly zero words, and
+ * the rest mostly differ only in their low mantissa bytes. Each run of zero words is written as a varint, followed
+ * by one non-zero word as a tag byte holding its leading and trailing zero byte counts and the bytes in between.
+ * <p>
+ * Predictions are made from decoded frames with deterministic double arithmetic, so decoding is exact for any
+ * state, including words that are not doubles.
+ */
+final class StateDeltaCodec {
+
+    private StateDeltaCodec() {
+    }
+
+    /**
+     * @param length The length of the encoded state vectors.
+     * @return int The largest number of bytes a frame of such vectors can take.
+     */
+    static int maxEncodedLength(int length) {
+        // a varint of at most 5 bytes, a tag byte and 8 bytes per word, and the final run
+        return length * 14 + 5;
+    }
+
+    /**
+     * @param older    The frame before the previous one, or null if only the previous frame is known.
+     * @param previous The previous frame, or null for a keyframe.
+     * @param state    The state to be encoded.
+     * @param out      The buffer the frame is written into, of at least maxEncodedLength bytes.
+     * @return int The length of the frame.
+     */
+    static int encode(
+            long[] older,
+            long[] previous,
+            long[] state,
+            byte[] out) {
+        int position = 0;
+        int zeroRun = 0;
+        for (int i = 0; i < state.length; ++i) {
+            long word = state[i] ^ predict(older, previous, i);
+            if (word == 0) {
+                ++zeroRun;
+                continue;
+            }
+            position = writeVarint(zeroRun, out, position);
+            zeroRun = 0;
+            int leading = Long.numberOfLeadingZeros(word) >>> 3;
+            int trailing = Long.numberOfTrailingZeros(word) >>> 3;
+            out[position++] = (byte) (leading << 4 | trailing);
+            for (int shift = 56 - leading * 8; shift >= trailing * 8; shift -= 8) {
+                out[position++] = (byte) (word >>> shift);
+            }
+        }
+        return writeVarint(zeroRun, out, position);
+    }
+
+    /**
+     * @param frame    The buffer holding the frame.
+     * @param offset   The index of the first byte of the frame.
+     * @param older    The frame before the previous one, as passed to encode.
+     * @param previous The previous frame, as passed to encode.
+     * @param state    The vector the decoded state is written into.
+     */
+    static void decode(
+            byte[] frame,
+            int offset,
+            long[] older,
+            long[] previous,
+            long[] state) {
+        int index = 0;
+        while (true) {
+            int zeroRun = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = frame[offset++];
+                zeroRun |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            for (int end = Math.min(index + zeroRun, state.length); index < end; ++index) {
+                state[index] = predict(older, previous, index);
+            }
+            if (index >= state.length) {
+                return;
+            }
+            int tag = frame[offset++];
+            int leading = (tag >>> 4) & 0xF;
+            int trailing = tag & 0xF;
+            long word = 0;
+            for (int shift = 56 - leading * 8; shift >= trailing * 8; shift -= 8) {
+                word |= (frame[offset++] & 0xFFL) << shift;
+            }
+            state[index] = word ^ predict(older, previous, index);
+            ++index;
+        }
+    }
+
+    private static long predict(
+            long[] older,
+            long[] previous,
+            int i) {
+        if (previous == null) {
+            return 0;
+        }
+        if (older == null || older[i] == previous[i]) {
+            return previous[i];
+        }
+        double last = Double.longBitsToDouble(previous[i]);
+        return Double.doubleToRawLongBits(last + (last - Double.longBitsToDouble(older[i])));
+    }
+
+    private static int writeVarint(
+            int value,
+            byte[] out,
+            int position) {
+        while ((value & ~0x7F) != 0) {
+            out[position++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+}
@@ -0,0 +1,105 @@
+package ballboy.view;
+
+import ballboy.model.Entity;
+import ballboy.model.RenderSnapshot;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+/**
+ * Draws every visible entity onto a single Canvas, layer by layer.
+ * <p>
+ * There is no node per entity, so nothing is added to or removed from the scene graph as entities come and go, and
+ * no view has to be found for an entity. Sprites drawn from the same atlas page are batched by JavaFX into draws
+ * from one texture. Entities outside the viewport are not drawn.
+ */
+public class CanvasRenderer implements EntityRenderer {
+    private static final Entity.Layer[] LAYERS = {
+            Entity.Layer.BACKGROUND, Entity.Layer.FOREGROUND, Entity.Layer.EFFECT
+    };
+
+    private final Canvas canvas;
+    private final Viewport viewport;
+    private final GraphicsContext graphics;
+    private TextureAtlas atlas;
+
+    /**
+     * @param width    The width of the canvas.
+     * @param height   The height of the canvas.
+     * @param viewport The visible part of the level.
+     */
+    public CanvasRenderer(
+            double width,
+            double height,
+            Viewport viewport) {
+        this.viewport = viewport;
+        canvas = new Canvas(width, height);
+        // in front of the background, behind the scores
+        canvas.setViewOrder(500.0);
+        graphics = canvas.getGraphicsContext2D();
+    }
+
+    /**
+     * @return Node The canvas, to be added to the scene.
+     */
+    public Node getNode() {
+        return canvas;
+    }
+
+    @Override
+    public void setAtlas(TextureAtlas atlas) {
+        this.atlas = atlas;
+    }
+
+    @Override
+    public void draw(
+            RenderSnapshot snapshot,
+            double xViewportOffset,
+            double yViewportOffset,
+            double alpha) {
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        for (Entity.Layer layer : LAYERS) {
+            for (int i = 0; i < snapshot.getSize(); ++i) {
+                if (snapshot.getLayer(i) == layer
+                        && viewport.intersects(snapshot, i, xViewportOffset, yViewportOffset)) {
+                    drawEntity(snapshot, i, xViewportOffset, yViewportOffset, alpha);
+                }
+            }
+        }
+    }
+
+    private void drawEntity(
+            RenderSnapshot snapshot,
+            int index,
+            double xViewportOffset,
+            double yViewportOffset,
+            double alpha) {
+        double previousX = snapshot.getPreviousX(index);
+        double previousY = snapshot.getPreviousY(index);
+        double x = previousX + (snapshot.getX(index) - previousX) * alpha;
+        double y = previousY + (snapshot.getY(index) - previousY) * alpha;
+
+        Image image = snapshot.getImage(index);
+        TextureAtlas.Region region = atlas == null ? null : atlas.getRegion(image);
+        double sourceX = 0;
+        double sourceY = 0;
+        double sourceWidth = image.getWidth();
+        double sourceHeight = image.getHeight();
+        if (region != null) {
+            Rectangle2D sprite = region.getViewport();
+            image = region.getPage();
+            sourceX = sprite.getMinX();
+            sourceY = sprite.getMinY();
+        }
+        if (sourceWidth <= 0 || sourceHeight <= 0) {
+            return;
+        }
+
+        // fit within the entity while preserving the ratio of the image, as an ImageView does
+        double scale = Math.min(snapshot.getWidth(index) / sourceWidth, snapshot.getHeight(index) / sourceHeight);
+        graphics.drawImage(image, sourceX, sourceY, sourceWidth, sourceHeight,
+                x - xViewportOffset, y - yViewportOffset, sourceWidth * scale, sourceHeight * scale);
+    }
+}
@@ -0,0 +1,27 @@
+package ballboy.view;
+
+import ballboy.model.RenderSnapshot;
+
+/**
+ * Draws the entities of the current level on every display frame.
+ */
+public interface EntityRenderer {
+    /**
+     * @param atlas The atlas sprites are drawn from when they are packed in it, or null to draw every sprite from its
+     *              own image.
+     */
+    void setAtlas(TextureAtlas atlas);
+
+    /**
+     * @param snapshot        The latest snapshot of the current level.
+     * @param xViewportOffset The horizontal offset of the viewport.
+     * @param yViewportOffset The vertical offset of the viewport.
+     * @param alpha           How far the simulation is into the next tick, used to interpolate between the
+     *                        positions before and after the tick of the snapshot.
+     */
+    void draw(
+            RenderSnapshot snapshot,
+            double xViewportOffset,
+            double yViewportOffset,
+            double alpha);
+}
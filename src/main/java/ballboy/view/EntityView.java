@@ -1,14 +1,40 @@
 package ballboy.view;
 
-import ballboy.model.Entity;
+import ballboy.model.RenderSnapshot;
 import javafx.scene.Node;
 
 public interface EntityView {
+    /**
+     * Points the view at another entity, so that the view of an entity that went off screen can be reused.
+     *
+     * @param snapshot The snapshot the entity is in.
+     * @param index    The index of the entity in the snapshot.
+     * @param atlas    The atlas the sprite of the entity is drawn from, or null to draw it from its own image.
+     */
+    void bind(
+            RenderSnapshot snapshot,
+            int index,
+            TextureAtlas atlas);
+
+    /**
+     * @param snapshot        The latest snapshot, in which the entity of the view is at the index.
+     * @param index           The index of the entity in the snapshot.
+     * @param xViewportOffset The horizontal offset of the viewport.
+     * @param yViewportOffset The vertical offset of the viewport.
+     * @param alpha           How far the simulation is into the next tick, used to interpolate between the
+     *                        previous and the current position of the entity.
+     */
     void update(
+            RenderSnapshot snapshot,
+            int index,
             double xViewportOffset,
-            double yViewportOffset);
+            double yViewportOffset,
+            double alpha);
 
-    boolean matchesEntity(Entity entity);
+    /**
+     * @return int The ID of the entity the view shows.
+     */
+    int getEntityId();
 
     void markForDelete();
 
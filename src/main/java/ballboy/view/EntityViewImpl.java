@@ -1,19 +1,37 @@
 package ballboy.view;
 
 import ballboy.model.Entity;
+import ballboy.model.RenderSnapshot;
 import javafx.scene.Node;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
+/**
+ * Shows an entity as an ImageView.
+ * <p>
+ * The image and size of the entity are only read when its version moved, and node properties are only written when
+ * they change. A view of static scenery therefore costs nothing per frame while the viewport stands still.
+ */
 public class EntityViewImpl implements EntityView {
-    private final Entity entity;
+    private int entityId;
     private boolean delete = false;
     private final ImageView node;
+    private TextureAtlas atlas;
+    private Image image;
+    private long version;
+    private double drawnX;
+    private double drawnY;
 
-    EntityViewImpl(Entity entity) {
-        this.entity = entity;
-        node = new ImageView(entity.getImage());
-        node.setViewOrder(getViewOrder(entity.getLayer()));
-        update(0.0, 0.0);
+    /**
+     * @param atlas The atlas the sprite of the entity is drawn from, or null to draw it from its own image.
+     */
+    EntityViewImpl(
+            RenderSnapshot snapshot,
+            int index,
+            TextureAtlas atlas) {
+        node = new ImageView();
+        node.setPreserveRatio(true);
+        bind(snapshot, index, atlas);
     }
 
     private static double getViewOrder(Entity.Layer layer) {
@@ -29,24 +47,71 @@ public class EntityViewImpl implements EntityView {
         }
     }
 
+    @Override
+    public void bind(
+            RenderSnapshot snapshot,
+            int index,
+            TextureAtlas atlas) {
+        this.entityId = snapshot.getId(index);
+        this.atlas = atlas;
+        node.setViewOrder(getViewOrder(snapshot.getLayer(index)));
+        image = null;
+        version = -1;
+        drawnX = Double.NaN;
+        drawnY = Double.NaN;
+    }
+
     @Override
     public void update(
+            RenderSnapshot snapshot,
+            int index,
             double xViewportOffset,
-            double yViewportOffset) {
-        if (!node.getImage().equals(entity.getImage())) {
-            node.setImage(entity.getImage());
+            double yViewportOffset,
+            double alpha) {
+        long currentVersion = snapshot.getVersion(index);
+        if (currentVersion != version) {
+            version = currentVersion;
+            if (image != snapshot.getImage(index)) {
+                setImage(snapshot.getImage(index));
+            }
+            if (node.getFitHeight() != snapshot.getHeight(index)) {
+                node.setFitHeight(snapshot.getHeight(index));
+            }
+            if (node.getFitWidth() != snapshot.getWidth(index)) {
+                node.setFitWidth(snapshot.getWidth(index));
+            }
+        }
+
+        double previousX = snapshot.getPreviousX(index);
+        double previousY = snapshot.getPreviousY(index);
+        double x = previousX + (snapshot.getX(index) - previousX) * alpha - xViewportOffset;
+        double y = previousY + (snapshot.getY(index) - previousY) * alpha - yViewportOffset;
+        if (x != drawnX) {
+            node.setX(x);
+            drawnX = x;
+        }
+        if (y != drawnY) {
+            node.setY(y);
+            drawnY = y;
         }
-        node.setX(entity.getPosition().getX() - xViewportOffset);
-        node.setY(entity.getPosition().getY() - yViewportOffset);
-        node.setFitHeight(entity.getHeight());
-        node.setFitWidth(entity.getWidth());
-        node.setPreserveRatio(true);
         delete = false;
     }
 
+    private void setImage(Image image) {
+        this.image = image;
+        TextureAtlas.Region region = atlas == null ? null : atlas.getRegion(image);
+        if (region == null) {
+            node.setImage(image);
+            node.setViewport(null);
+        } else {
+            node.setImage(region.getPage());
+            node.setViewport(region.getViewport());
+        }
+    }
+
     @Override
-    public boolean matchesEntity(Entity entity) {
-        return this.entity.equals(entity);
+    public int getEntityId() {
+        return entityId;
     }
 
     @Override
@@ -1,60 +1,101 @@
 package ballboy.view;
 
-import ballboy.model.Entity;
 import ballboy.model.GameEngine;
+import ballboy.model.RenderSnapshot;
+import ballboy.model.RenderSnapshotPublisher;
+import ballboy.model.SimulationThread;
 import ballboy.model.entities.observer.Observer;
 import ballboy.model.entities.observer.ScoreObserver;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.AnimationTimer;
 import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
 import javafx.collections.ObservableList;
 import javafx.scene.Scene;
+import javafx.scene.image.Image;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
-import javafx.util.Duration;
-import org.junit.Test;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 public class GameWindow {
+    /**
+     * How entities are drawn.
+     */
+    public enum RenderMode {
+        /**
+         * One ImageView node per entity.
+         */
+        NODES,
+        /**
+         * Every entity onto a single Canvas.
+         */
+        CANVAS
+    }
+
     private static final double VIEWPORT_MARGIN_X = 100;
     private static final double VIEWPORT_MARGIN_Y = 50;
     private final int width;
     private final int height;
-    private final double frameDurationMilli;
     private final Scene scene;
     private final Pane pane;
     private final GameEngine model;
-    private final List<EntityView> entityViews;
+    private final EntityRenderer renderer;
     private final BackgroundDrawer backgroundDrawer;
+    private final RenderSnapshotPublisher publisher;
+    private final SimulationThread simulation;
+    private long atlasLevelSerial = -1;
     private double xViewportOffset = 0.0;
     private double yViewportOffset = 0.0;
     private Text totalScore = new Text();
     private Text redScore = new Text();
     private Text greenScore = new Text();
     private Text blueScore = new Text();
+    private AnimationTimer timer;
+
+    public GameWindow(
+            GameEngine model,
+            int width,
+            int height) {
+        this(model, width, height, RenderMode.NODES, Viewport.DEFAULT_CULL_MARGIN, false);
+    }
 
+    /**
+     * @param renderMode       How entities are drawn.
+     * @param cullMargin       How far outside the screen entities are still drawn, in pixels.
+     * @param simulationThread Whether the model is simulated on a dedicated thread rather than between frames on the
+     *                         JavaFX application thread. The model must then no longer be used from other threads
+     *                         once the window runs.
+     */
     public GameWindow(
             GameEngine model,
             int width,
             int height,
-            double frameDurationMilli) {
+            RenderMode renderMode,
+            double cullMargin,
+            boolean simulationThread) {
         this.model = model;
         this.width = width;
         this.height = height;
-        this.frameDurationMilli = frameDurationMilli;
         pane = new Pane();
         scene = new Scene(pane, width, height);
 
+        Viewport viewport = new Viewport(width, height, cullMargin);
+        if (renderMode == RenderMode.CANVAS) {
+            CanvasRenderer canvasRenderer = new CanvasRenderer(width, height, viewport);
+            pane.getChildren().add(canvasRenderer.getNode());
+            renderer = canvasRenderer;
+        } else {
+            renderer = new SceneGraphRenderer(pane, viewport);
+        }
 
-        entityViews = new ArrayList<>();
-
-        KeyboardInputHandler keyboardInputHandler = new KeyboardInputHandler(model);
+        publisher = new RenderSnapshotPublisher(model);
+        simulation = simulationThread ? new SimulationThread(model, publisher) : null;
+        KeyboardInputHandler keyboardInputHandler = new KeyboardInputHandler(model, model.getInputQueue());
 
         scene.setOnKeyPressed(keyboardInputHandler::handlePressed);
         scene.setOnKeyReleased(keyboardInputHandler::handleReleased);
@@ -97,35 +138,88 @@ public class GameWindow {
         return scene;
     }
 
+    /**
+     * Starts rendering on every display frame. The model is advanced by the real time elapsed, so its tick rate does
+     * not depend on the refresh rate, and positions are interpolated between the last two ticks. Without a simulation
+     * thread the model is advanced before every frame; with one, each frame draws the latest snapshot it published.
+     */
     public void run() {
-        Timeline timeline = new Timeline(new KeyFrame(Duration.millis(frameDurationMilli),
-                t -> this.draw()));
-
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
+        if (timer != null) {
+            return;
+        }
+        double tickNanos = model.getTickDurationMilli() * 1e6;
+        if (simulation != null) {
+            simulation.start();
+        } else {
+            model.setTickListener(publisher::beforeTick);
+        }
+        timer = new AnimationTimer() {
+            private long lastFrameNanos = -1;
+
+            @Override
+            public void handle(long now) {
+                if (simulation != null) {
+                    // the snapshot is interpolated towards for a tick after it was published
+                    RenderSnapshot snapshot = publisher.getLatest();
+                    double alpha = Math.min((System.nanoTime() - snapshot.getPublishedNanos()) / tickNanos, 1.0);
+                    draw(snapshot, Math.max(alpha, 0.0));
+                    return;
+                }
+                double elapsedMilli = lastFrameNanos < 0 ? 0.0 : (now - lastFrameNanos) / 1e6;
+                lastFrameNanos = now;
+                if (model.advance(elapsedMilli) > 0) {
+                    publisher.publish();
+                }
+                draw(publisher.getLatest(), model.getInterpolationAlpha());
+            }
+        };
+        timer.start();
     }
 
-    private void draw() {
-        totalScore.setText(new StringBuilder().append("Total: ").append(model.getTotalScore()).toString());
-        redScore.setText(new StringBuilder().append("Current Red: ").append(model.getCurrentLevel().getRed().getValue()).toString());
-        greenScore.setText(new StringBuilder().append("Current Green: ").append(model.getCurrentLevel().getGreen().getValue()).toString());
-        blueScore.setText(new StringBuilder().append("Current Blue: ").append(model.getCurrentLevel().getBlue().getValue()).toString());
-        model.tick();
-
-        List<Entity> entities = model.getCurrentLevel().getEntities();
+    /**
+     * Stops rendering and the simulation thread, if any, after which the model can be used from the calling thread.
+     *
+     * @throws InterruptedException Thrown when interrupted while waiting for the simulation thread to stop.
+     */
+    public void stop() throws InterruptedException {
+        if (timer != null) {
+            timer.stop();
+        }
+        if (simulation != null) {
+            simulation.stop();
+        }
+    }
 
-        for (EntityView entityView : entityViews) {
-            entityView.markForDelete();
+    /**
+     * Packs the sprites of the level of the snapshot into an atlas, which is rebuilt whenever the level changes.
+     * Sprites that first appear later in the level are drawn from their own images.
+     */
+    private void buildAtlas(RenderSnapshot snapshot) {
+        atlasLevelSerial = snapshot.getLevelSerial();
+        Set<Image> images = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < snapshot.getSize(); ++i) {
+            images.add(snapshot.getImage(i));
         }
+        renderer.setAtlas(TextureAtlas.build(images));
+    }
 
-        double heroXPos = model.getCurrentLevel().getHeroX();
+    private void draw(
+            RenderSnapshot snapshot,
+            double alpha) {
+        totalScore.setText(new StringBuilder().append("Total: ").append(snapshot.getTotalScore()).toString());
+        redScore.setText(new StringBuilder().append("Current Red: ").append(snapshot.getRedScore()).toString());
+        greenScore.setText(new StringBuilder().append("Current Green: ").append(snapshot.getGreenScore()).toString());
+        blueScore.setText(new StringBuilder().append("Current Blue: ").append(snapshot.getBlueScore()).toString());
+
+        double heroPreviousX = snapshot.getHeroPreviousX();
+        double heroXPos = heroPreviousX + (snapshot.getHeroX() - heroPreviousX) * alpha;
         double viewportLeftBar = xViewportOffset + VIEWPORT_MARGIN_X;
         double viewportRightBar = viewportLeftBar + (width - 2 * VIEWPORT_MARGIN_X);
 
         if (heroXPos < viewportLeftBar) {
             xViewportOffset -= heroXPos - viewportLeftBar;
-        } else if (heroXPos + model.getCurrentLevel().getHeroWidth() > viewportRightBar) {
-            xViewportOffset += heroXPos + model.getCurrentLevel().getHeroWidth() - viewportRightBar;
+        } else if (heroXPos + snapshot.getHeroWidth() > viewportRightBar) {
+            xViewportOffset += heroXPos + snapshot.getHeroWidth() - viewportRightBar;
         }
 
         heroXPos -= xViewportOffset;
@@ -139,17 +233,18 @@ public class GameWindow {
             }
         }
 
-        double levelRight = model.getCurrentLevel().getLevelWidth();
-        double screenRight = xViewportOffset + width - model.getCurrentLevel().getHeroWidth();
+        double levelRight = snapshot.getLevelWidth();
+        double screenRight = xViewportOffset + width - snapshot.getHeroWidth();
         if (screenRight > levelRight) {
-            xViewportOffset = levelRight - width + model.getCurrentLevel().getHeroWidth();
+            xViewportOffset = levelRight - width + snapshot.getHeroWidth();
         }
 
 
         double levelTop = 0.0;
-        double levelBottom = model.getCurrentLevel().getLevelHeight();
-        double heroYPos = model.getCurrentLevel().getHeroY();
-        double heroHeight = model.getCurrentLevel().getHeroHeight();
+        double levelBottom = snapshot.getLevelHeight();
+        double heroPreviousY = snapshot.getHeroPreviousY();
+        double heroYPos = heroPreviousY + (snapshot.getHeroY() - heroPreviousY) * alpha;
+        double heroHeight = snapshot.getHeroHeight();
         double viewportTop = yViewportOffset + VIEWPORT_MARGIN_Y;
         double viewportBottom = yViewportOffset + height - 2 * VIEWPORT_MARGIN_Y;
 
@@ -194,29 +289,11 @@ public class GameWindow {
 
         backgroundDrawer.update(xViewportOffset, yViewportOffset);
 
-
-        for (Entity entity : entities) {
-            boolean notFound = true;
-            for (EntityView view : entityViews) {
-                if (view.matchesEntity(entity)) {
-                    notFound = false;
-                    view.update(xViewportOffset, yViewportOffset);
-                    break;
-                }
-            }
-            if (notFound) {
-                EntityView entityView = new EntityViewImpl(entity);
-                entityViews.add(entityView);
-                pane.getChildren().add(entityView.getNode());
-            }
+        if (snapshot.getLevelSerial() != atlasLevelSerial) {
+            buildAtlas(snapshot);
         }
 
-        for (EntityView entityView : entityViews) {
-            if (entityView.isMarkedForDelete()) {
-                pane.getChildren().remove(entityView.getNode());
-            }
-        }
-        entityViews.removeIf(EntityView::isMarkedForDelete);
+        renderer.draw(snapshot, xViewportOffset, yViewportOffset, alpha);
     }
 
 }
@@ -6,17 +6,29 @@ import javafx.scene.input.KeyEvent;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 class KeyboardInputHandler {
     private final GameEngine model;
+    private final Executor controls;
     private boolean left = false;
     private boolean right = false;
     private final Set<KeyCode> pressedKeys = new HashSet<>();
+    /**
+     * How far one press of the rewind key goes back, about a second at the default tick duration.
+     */
+    private static final int REWIND_TICKS = 60;
 
 //    private Map<String, MediaPlayer> sounds = new HashMap<>();
 
-    KeyboardInputHandler(GameEngine model) {
+    /**
+     * @param controls Queues the controls on the model for the next tick, stamped with the time the key arrived.
+     */
+    KeyboardInputHandler(
+            GameEngine model,
+            Executor controls) {
         this.model = model;
+        this.controls = controls;
 
         // TODO (longGoneUser): Is there a better place for this code?
         // TODO (bobbob): Move sound choice/production into the model before alpha is released to the new devs
@@ -37,17 +49,20 @@ class KeyboardInputHandler {
         pressedKeys.add(keyEvent.getCode());
 
         if (keyEvent.getCode().equals(KeyCode.S)){
-            model.createSave();
+            controls.execute(model::createSave);
         } else if (keyEvent.getCode().equals(KeyCode.Q)){
-            model.load();
+            controls.execute(model::load);
+        } else if (keyEvent.getCode().equals(KeyCode.R)){
+            controls.execute(() -> model.rewind(REWIND_TICKS));
         }
 
         if (keyEvent.getCode().equals(KeyCode.UP)) {
-            if (model.boostHeight()) {
+            controls.execute(model::boostHeight);
+//            if (model.boostHeight()) {
 //                MediaPlayer jumpPlayer = sounds.get("jump");
 //                jumpPlayer.stop();
 //                jumpPlayer.play();
-            }
+//            }
         }
 
         if (keyEvent.getCode().equals(KeyCode.LEFT)) {
@@ -59,9 +74,9 @@ class KeyboardInputHandler {
         }
 
         if (left) {
-            model.moveLeft();
+            controls.execute(model::moveLeft);
         } else {
-            model.moveRight();
+            controls.execute(model::moveRight);
         }
     }
 
@@ -77,11 +92,11 @@ class KeyboardInputHandler {
         }
 
         if (!(right || left)) {
-            model.dropHeight();
+            controls.execute(model::dropHeight);
         } else if (right) {
-            model.moveRight();
+            controls.execute(model::moveRight);
         } else {
-            model.moveLeft();
+            controls.execute(model::moveLeft);
         }
     }
 }
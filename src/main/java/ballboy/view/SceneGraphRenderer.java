@@ -0,0 +1,102 @@
+package ballboy.view;
+
+import ballboy.model.RenderSnapshot;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Draws every visible entity as its own ImageView node in the scene graph.
+ * <p>
+ * Only entities in the viewport have a view. The view of an entity that goes off screen, or is removed from the
+ * level, is hidden and kept in a pool for the next entity that comes into view, so nodes are neither created nor
+ * removed from the scene graph while the game plays.
+ * <p>
+ * Views are found through a table indexed by entity ID, which is cleared whenever the level changes.
+ */
+public class SceneGraphRenderer implements EntityRenderer {
+    private final Pane pane;
+    private final Viewport viewport;
+    private final List<EntityView> entityViews = new ArrayList<>();
+    private EntityView[] viewsById = new EntityView[0];
+    private final Deque<EntityView> recycledViews = new ArrayDeque<>();
+    private TextureAtlas atlas;
+    private long levelSerial = -1;
+
+    /**
+     * @param pane     The pane the nodes of the entities are added to.
+     * @param viewport The visible part of the level.
+     */
+    public SceneGraphRenderer(
+            Pane pane,
+            Viewport viewport) {
+        this.pane = pane;
+        this.viewport = viewport;
+    }
+
+    @Override
+    public void setAtlas(TextureAtlas atlas) {
+        this.atlas = atlas;
+    }
+
+    @Override
+    public void draw(
+            RenderSnapshot snapshot,
+            double xViewportOffset,
+            double yViewportOffset,
+            double alpha) {
+        if (snapshot.getLevelSerial() != levelSerial) {
+            // IDs are only unique within a level, so every view is let go when the level changes
+            levelSerial = snapshot.getLevelSerial();
+            Arrays.fill(viewsById, null);
+            for (EntityView entityView : entityViews) {
+                entityView.getNode().setVisible(false);
+                recycledViews.push(entityView);
+            }
+            entityViews.clear();
+        }
+
+        for (EntityView entityView : entityViews) {
+            entityView.markForDelete();
+        }
+
+        for (int i = 0; i < snapshot.getSize(); ++i) {
+            if (!viewport.intersects(snapshot, i, xViewportOffset, yViewportOffset)) {
+                continue;
+            }
+            int id = snapshot.getId(i);
+            EntityView view = id < viewsById.length ? viewsById[id] : null;
+            if (view != null) {
+                view.update(snapshot, i, xViewportOffset, yViewportOffset, alpha);
+            } else {
+                EntityView entityView = recycledViews.poll();
+                if (entityView == null) {
+                    entityView = new EntityViewImpl(snapshot, i, atlas);
+                    pane.getChildren().add(entityView.getNode());
+                } else {
+                    entityView.bind(snapshot, i, atlas);
+                    entityView.getNode().setVisible(true);
+                }
+                entityView.update(snapshot, i, xViewportOffset, yViewportOffset, alpha);
+                entityViews.add(entityView);
+                if (id >= viewsById.length) {
+                    viewsById = Arrays.copyOf(viewsById, Math.max(id + 1, viewsById.length * 2));
+                }
+                viewsById[id] = entityView;
+            }
+        }
+
+        for (EntityView entityView : entityViews) {
+            if (entityView.isMarkedForDelete()) {
+                entityView.getNode().setVisible(false);
+                recycledViews.push(entityView);
+                viewsById[entityView.getEntityId()] = null;
+            }
+        }
+        entityViews.removeIf(EntityView::isMarkedForDelete);
+    }
+}
@@ -0,0 +1,167 @@
+package ballboy.view;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sprites packed into one or a few large images, so that entities drawn with different sprites share a texture.
+ * <p>
+ * Every sprite is drawn as a sub-rectangle of a page, which JavaFX uploads to the GPU as a single texture. Sprites
+ * are packed into shelves ordered by height, and each one is surrounded by a copy of its edge pixels, so that
+ * filtering at the edge of a scaled sprite does not pick up its neighbours. A sprite that does not fit on a page is
+ * left out and drawn from its own image.
+ * <p>
+ * An atlas must be built on the JavaFX application thread.
+ */
+public class TextureAtlas {
+    /**
+     * The largest page, which every GPU that JavaFX supports can hold as one texture.
+     */
+    private static final int MAX_PAGE_SIZE = 4096;
+    private static final int PADDING = 1;
+
+    private final Map<Image, Region> regions = new IdentityHashMap<>();
+    private final List<Image> pages = new ArrayList<>();
+
+    private TextureAtlas() {
+    }
+
+    /**
+     * Packs the provided sprites. Duplicates and sprites that have not loaded are skipped.
+     *
+     * @param images The sprites.
+     * @return TextureAtlas The atlas.
+     */
+    public static TextureAtlas build(Collection<Image> images) {
+        List<Image> sprites = new ArrayList<>();
+        double area = 0;
+        int widest = 0;
+        for (Image image : new LinkedHashSet<>(images)) {
+            int width = paddedSize(image.getWidth());
+            int height = paddedSize(image.getHeight());
+            if (image.isError() || image.getPixelReader() == null || width > MAX_PAGE_SIZE
+                    || height > MAX_PAGE_SIZE || image.getWidth() < 1 || image.getHeight() < 1) {
+                continue;
+            }
+            sprites.add(image);
+            area += (double) width * height;
+            widest = Math.max(widest, width);
+        }
+        // taller sprites first keeps the shelves evenly filled
+        sprites.sort((a, b) -> Double.compare(b.getHeight(), a.getHeight()));
+        int pageWidth = Math.min(MAX_PAGE_SIZE, Math.max(widest, (int) Math.ceil(Math.sqrt(area))));
+
+        TextureAtlas atlas = new TextureAtlas();
+        List<Image> pageSprites = new ArrayList<>();
+        List<int[]> pagePositions = new ArrayList<>();
+        int shelfX = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        for (Image sprite : sprites) {
+            int width = paddedSize(sprite.getWidth());
+            int height = paddedSize(sprite.getHeight());
+            if (shelfX + width > pageWidth) {
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            if (shelfY + height > MAX_PAGE_SIZE) {
+                atlas.addPage(pageWidth, shelfY, pageSprites, pagePositions);
+                pageSprites.clear();
+                pagePositions.clear();
+                shelfY = 0;
+            }
+            pageSprites.add(sprite);
+            pagePositions.add(new int[]{shelfX, shelfY});
+            shelfX += width;
+            shelfHeight = Math.max(shelfHeight, height);
+        }
+        if (!pageSprites.isEmpty()) {
+            atlas.addPage(pageWidth, shelfY + shelfHeight, pageSprites, pagePositions);
+        }
+        return atlas;
+    }
+
+    private static int paddedSize(double size) {
+        return (int) Math.ceil(size) + 2 * PADDING;
+    }
+
+    private void addPage(
+            int width,
+            int height,
+            List<Image> sprites,
+            List<int[]> positions) {
+        WritableImage page = new WritableImage(width, height);
+        PixelWriter writer = page.getPixelWriter();
+        for (int i = 0; i < sprites.size(); ++i) {
+            Image sprite = sprites.get(i);
+            int x = positions.get(i)[0] + PADDING;
+            int y = positions.get(i)[1] + PADDING;
+            int w = (int) sprite.getWidth();
+            int h = (int) sprite.getHeight();
+            PixelReader reader = sprite.getPixelReader();
+            writer.setPixels(x, y, w, h, reader, 0, 0);
+            // extrude the edges into the padding
+            writer.setPixels(x - 1, y, 1, h, reader, 0, 0);
+            writer.setPixels(x + w, y, 1, h, reader, w - 1, 0);
+            writer.setPixels(x - 1, y - 1, w + 2, 1, page.getPixelReader(), x - 1, y);
+            writer.setPixels(x - 1, y + h, w + 2, 1, page.getPixelReader(), x - 1, y + h - 1);
+            regions.put(sprite, new Region(page, new Rectangle2D(x, y, w, h)));
+        }
+        pages.add(page);
+    }
+
+    /**
+     * @param image The sprite.
+     * @return Region Where the sprite is in the atlas, or null if it was not packed.
+     */
+    public Region getRegion(Image image) {
+        return regions.get(image);
+    }
+
+    /**
+     * @return int The number of pages, each of which is one texture.
+     */
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * A sprite in the atlas.
+     */
+    public static class Region {
+        private final Image page;
+        private final Rectangle2D viewport;
+
+        private Region(
+                Image page,
+                Rectangle2D viewport) {
+            this.page = page;
+            this.viewport = viewport;
+        }
+
+        /**
+         * @return Image The page the sprite is on.
+         */
+        public Image getPage() {
+            return page;
+        }
+
+        /**
+         * @return Rectangle2D The sprite on its page, in pixels.
+         */
+        public Rectangle2D getViewport() {
+            return viewport;
+        }
+    }
+}
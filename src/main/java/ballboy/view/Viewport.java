@@ -0,0 +1,58 @@
+package ballboy.view;
+
+import ballboy.model.RenderSnapshot;
+
+/**
+ * The visible part of the level, used to cull entities that are off screen.
+ * <p>
+ * The visible rectangle is widened by a margin on every side, so that an entity is drawn a little before it scrolls
+ * into view and its interpolated position never starts from outside the screen.
+ */
+public class Viewport {
+    /**
+     * The margin used when none is configured, in pixels.
+     */
+    public static final double DEFAULT_CULL_MARGIN = 100.0;
+
+    private final double width;
+    private final double height;
+    private final double margin;
+
+    /**
+     * @param width  The width of the screen.
+     * @param height The height of the screen.
+     * @param margin How far outside the screen entities are still drawn.
+     * @throws IllegalArgumentException Thrown when the margin is negative.
+     */
+    public Viewport(
+            double width,
+            double height,
+            double margin) {
+        if (!(margin >= 0)) {
+            throw new IllegalArgumentException(String.format("%f is not a valid cull margin", margin));
+        }
+        this.width = width;
+        this.height = height;
+        this.margin = margin;
+    }
+
+    /**
+     * @param snapshot        The snapshot the entity is in.
+     * @param index           The index of the entity in the snapshot.
+     * @param xViewportOffset The horizontal offset of the viewport.
+     * @param yViewportOffset The vertical offset of the viewport.
+     * @return boolean Whether the entity intersects the visible rectangle, widened by the margin.
+     */
+    public boolean intersects(
+            RenderSnapshot snapshot,
+            int index,
+            double xViewportOffset,
+            double yViewportOffset) {
+        double x = snapshot.getX(index);
+        double y = snapshot.getY(index);
+        return x + snapshot.getWidth(index) >= xViewportOffset - margin
+                && x <= xViewportOffset + width + margin
+                && y + snapshot.getHeight(index) >= yViewportOffset - margin
+                && y <= yViewportOffset + height + margin;
+    }
+}
@@ -0,0 +1,225 @@
+package ballboy.model.levels;
+
+import ballboy.model.Entity;
+import ballboy.model.Level;
+import ballboy.model.entities.DynamicEntityImpl;
+import ballboy.model.entities.StaticEntityImpl;
+import ballboy.model.entities.behaviour.BehaviourStrategy;
+import ballboy.model.entities.behaviour.FloatingCloudBehaviourStrategy;
+import ballboy.model.entities.behaviour.PassiveEntityBehaviourStrategy;
+import ballboy.model.entities.behaviour.ScaredEnemyBehaviourStrategy;
+import ballboy.model.entities.behaviour.SquareCatBehaviourStrategy;
+import ballboy.model.entities.collision.BallboyCollisionStrategy;
+import ballboy.model.entities.collision.CollisionStrategy;
+import ballboy.model.entities.collision.EnemyCollisionStrategy;
+import ballboy.model.entities.collision.PassiveCollisionStrategy;
+import ballboy.model.entities.collision.SquareCatCollisionStrategy;
+import ballboy.model.entities.store.Archetype;
+import ballboy.model.entities.store.ArchetypeTable;
+import ballboy.model.entities.store.TableBoundingBox;
+import ballboy.model.entities.store.TableKinematicState;
+import ballboy.model.factories.EntityFactory;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that stepping a level forward does not allocate once the JIT has warmed up, both while nothing hits the hero
+ * and while the hero keeps being reset by an enemy.
+ */
+public class LevelImplAllocationTest {
+    private static final double FRAME_DURATION_MILLI = 17;
+    private static final int WARM_UP_UPDATES = 20_000;
+    private static final int MEASURED_UPDATES = 2_000;
+    private static final int MEASUREMENT_ROUNDS = 5;
+    private static final double HERO_TRAP_X = 2000.0;
+
+    @Test
+    public void updateDoesNotAllocateAfterWarmUp() {
+        assertEquals(0, measureUpdateAllocations(levelConfiguration()), "bytes allocated by update()");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void updateWithHeroCollisionsDoesNotAllocateAfterWarmUp() {
+        // the hero keeps falling onto an enemy that stays put, and is reset through EnemyCollisionStrategy each time.
+        // The squarecat is made harmless, as it would otherwise remove the enemy before the measured updates
+        JSONObject configuration = levelConfiguration();
+        JSONObject trap = enemy(HERO_TRAP_X, 560.0, 0.0);
+        trap.put("behaviour", "passive");
+        ((JSONArray) configuration.get("genericEntities")).add(trap);
+        ((JSONObject) configuration.get("hero")).put("startX", HERO_TRAP_X);
+        ((JSONObject) configuration.get("squarecat")).put("collision", "passive");
+
+        assertEquals(0, measureUpdateAllocations(configuration), "bytes allocated by update()");
+    }
+
+    /*
+     * Warms the level up, then returns the bytes allocated by a round of updates.
+     */
+    private static long measureUpdateAllocations(JSONObject configuration) {
+        Level level = new LevelImpl(
+                configuration,
+                new PhysicsEngineImpl(FRAME_DURATION_MILLI),
+                new TestEntityFactory(),
+                FRAME_DURATION_MILLI);
+
+        for (int i = 0; i < WARM_UP_UPDATES; ++i) {
+            level.update();
+        }
+
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // the counter itself may allocate, so measure it on its own first
+        long calibrationStart = threadBean.getThreadAllocatedBytes(threadId);
+        long calibrationEnd = threadBean.getThreadAllocatedBytes(threadId);
+        long counterOverhead = calibrationEnd - calibrationStart;
+
+        // other tests in the same JVM step levels too, which can make the JIT recompile update() part way through a
+        // round, so a round only has to be clean once the code has settled
+        long allocated = -1;
+        for (int round = 0; round < MEASUREMENT_ROUNDS && allocated != 0; ++round) {
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_UPDATES; ++i) {
+                level.update();
+            }
+            long after = threadBean.getThreadAllocatedBytes(threadId);
+            allocated = after - before - counterOverhead;
+        }
+        return allocated;
+    }
+
+    /*
+     * A level with bouncing enemies, static blocks and clouds, where the hero is far enough away
+     * that the enemies never reset it.
+     */
+    @SuppressWarnings("unchecked")
+    static JSONObject levelConfiguration() {
+        JSONArray genericEntities = new JSONArray();
+        for (int i = 0; i < 40; ++i) {
+            genericEntities.add(enemy(20.0 + i * 20.0, 100.0 + (i % 5) * 80.0, i % 2 == 0 ? 10.0 : -10.0));
+        }
+        for (int i = 0; i < 10; ++i) {
+            genericEntities.add(entity("static", "posX", 60.0 + i * 80.0, "posY", 560.0));
+        }
+        for (int i = 0; i < 5; ++i) {
+            JSONObject cloud = entity("cloud", "startX", 100.0 + i * 150.0, "startY", 20.0);
+            genericEntities.add(cloud);
+        }
+
+        JSONObject floor = new JSONObject();
+        floor.put("height", 600.0);
+        floor.put("color", "#001100");
+
+        JSONObject configuration = new JSONObject();
+        configuration.put("levelWidth", 4000.0);
+        configuration.put("levelHeight", 620.0);
+        configuration.put("levelGravity", 700.0);
+        configuration.put("maxHeroVelocityX", 50);
+        configuration.put("floor", floor);
+        configuration.put("genericEntities", genericEntities);
+        configuration.put("hero", entity("hero", "startX", 3500.0, "startY", 300.0));
+        configuration.put("finish", entity("finish", "posX", 3900.0, "posY", 520.0));
+        configuration.put("squarecat", entity("squarecat", "startX", 0.0, "startY", 0.0));
+        return configuration;
+    }
+
+    @SuppressWarnings("unchecked")
+    static JSONObject enemy(
+            double startX,
+            double startY,
+            double startVelocityX) {
+        JSONObject enemy = entity("enemy", "startX", startX, "startY", startY);
+        enemy.put("startVelocityX", startVelocityX);
+        enemy.put("color", "red");
+        return enemy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject entity(
+            String type,
+            String xKey,
+            double x,
+            String yKey,
+            double y) {
+        JSONObject entity = new JSONObject();
+        entity.put("type", type);
+        entity.put(xKey, x);
+        entity.put(yKey, y);
+        return entity;
+    }
+
+    /*
+     * Builds entities with fixed sizes, so that no images need to be loaded.
+     */
+    static class TestEntityFactory implements EntityFactory {
+
+        @Override
+        public Entity createEntity(
+                Level level,
+                JSONObject config) {
+            String type = (String) config.get("type");
+            switch (type) {
+                case "enemy":
+                    BehaviourStrategy behaviour = "passive".equals(config.get("behaviour"))
+                            ? new PassiveEntityBehaviourStrategy() : new ScaredEnemyBehaviourStrategy(level);
+                    return dynamicEntity(level, Archetype.ENEMY, config, 20.0, 20.0, Entity.Layer.FOREGROUND,
+                            new EnemyCollisionStrategy(level), behaviour);
+                case "cloud":
+                    return dynamicEntity(level, Archetype.CLOUD, config, 40.0, 80.0, Entity.Layer.BACKGROUND,
+                            new PassiveCollisionStrategy(), new FloatingCloudBehaviourStrategy());
+                case "hero":
+                    return dynamicEntity(level, Archetype.HERO, config, 50.0, 30.0, Entity.Layer.FOREGROUND,
+                            new BallboyCollisionStrategy(level), new PassiveEntityBehaviourStrategy());
+                case "squarecat":
+                    CollisionStrategy collision = "passive".equals(config.get("collision"))
+                            ? new PassiveCollisionStrategy() : new SquareCatCollisionStrategy(level);
+                    return dynamicEntity(level, Archetype.SQUARECAT, config, 20.0, 20.0, Entity.Layer.FOREGROUND,
+                            collision, new SquareCatBehaviourStrategy(level));
+                default:
+                    ArchetypeTable table = level.getEntityStore().getTable(Archetype.STATIC);
+                    int row = table.addRow(
+                            ((Number) config.get("posX")).doubleValue(),
+                            ((Number) config.get("posY")).doubleValue(),
+                            0,
+                            40.0,
+                            40.0);
+                    return new StaticEntityImpl(level.getEntityStore().nextEntityId(), new TableBoundingBox(table, row), Entity.Layer.FOREGROUND, null);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static DynamicEntityImpl dynamicEntity(
+                Level level,
+                Archetype archetype,
+                JSONObject config,
+                double height,
+                double width,
+                Entity.Layer layer,
+                CollisionStrategy collisionStrategy,
+                BehaviourStrategy behaviourStrategy) {
+            ArchetypeTable table = level.getEntityStore().getTable(archetype);
+            int row = table.addRow(
+                    ((Number) config.get("startX")).doubleValue(),
+                    ((Number) config.get("startY")).doubleValue(),
+                    ((Number) config.getOrDefault("startVelocityX", 0.0)).doubleValue(),
+                    height,
+                    width);
+            return new DynamicEntityImpl(
+                    level.getEntityStore().nextEntityId(),
+                    new TableKinematicState(table, row),
+                    new TableBoundingBox(table, row),
+                    layer,
+                    null,
+                    collisionStrategy,
+                    behaviourStrategy,
+                    config);
+        }
+    }
+}
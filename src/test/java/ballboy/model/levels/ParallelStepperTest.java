@@ -0,0 +1,65 @@
+package ballboy.model.levels;
+
+import ballboy.model.Level;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Checks that a level stepped in parallel ends up in exactly the state it reaches when stepped sequentially.
+ */
+public class ParallelStepperTest {
+    private static final double FRAME_DURATION_MILLI = 17;
+    private static final int UPDATES = 2_000;
+
+    @Test
+    public void parallelUpdatesMatchSequentialUpdates() {
+        Level sequential = createLevel(false);
+        Level parallel = createLevel(true);
+
+        for (int i = 0; i < UPDATES; ++i) {
+            if (i % 7 == 0) {
+                sequential.moveRight();
+                parallel.moveRight();
+            }
+            sequential.update();
+            parallel.update();
+        }
+
+        assertArrayEquals(writeState(sequential), writeState(parallel));
+    }
+
+    /*
+     * The level of LevelImplAllocationTest with enough enemies to span several pages, and the hero among them so
+     * that it collides with them.
+     */
+    @SuppressWarnings("unchecked")
+    private static Level createLevel(boolean parallelStep) {
+        JSONObject configuration = LevelImplAllocationTest.levelConfiguration();
+        JSONArray genericEntities = (JSONArray) configuration.get("genericEntities");
+        for (int i = 0; i < 200; ++i) {
+            genericEntities.add(LevelImplAllocationTest.enemy(
+                    20.0 + i * 17.0, 80.0 + (i % 7) * 60.0, i % 3 == 0 ? 10.0 : -10.0));
+        }
+        ((JSONObject) configuration.get("hero")).put("startX", 300.0);
+        if (parallelStep) {
+            JSONObject parallelConfig = new JSONObject();
+            // small batches, so that pages and behaviours are split across many tasks
+            parallelConfig.put("threshold", 16);
+            configuration.put("parallelStep", parallelConfig);
+        }
+        return new LevelImpl(
+                configuration,
+                new PhysicsEngineImpl(FRAME_DURATION_MILLI),
+                new LevelImplAllocationTest.TestEntityFactory(),
+                FRAME_DURATION_MILLI);
+    }
+
+    private static long[] writeState(Level level) {
+        long[] state = new long[level.getStateLength()];
+        level.writeState(state);
+        return state;
+    }
+}
@@ -0,0 +1,137 @@
+package ballboy.save;
+
+import ballboy.model.Level;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that rewinding restores the exact state captured that many ticks before, within the bounds of the history.
+ */
+public class RewindHistoryTest {
+    private static final int LENGTH = 32;
+
+    @Test
+    public void rewindRestoresEarlierState() {
+        long[] state = stateAt(0);
+        Level level = stateLevel(state);
+        RewindHistory history = new RewindHistory(1 << 16, 100, 1, 8);
+        history.reset(level);
+        step(history, level, state, 1, 20);
+
+        assertEquals(5, history.rewind(level, 5));
+        assertArrayEquals(stateAt(15), state);
+
+        // the history carries on from the rewound state
+        step(history, level, state, 16, 30);
+        assertEquals(3, history.rewind(level, 3));
+        assertArrayEquals(stateAt(27), state);
+    }
+
+    @Test
+    public void rewindAcrossRingWrap() {
+        long[] state = stateAt(0);
+        Level level = stateLevel(state);
+        // a couple of kilobytes hold only a few frames, so the ring wraps around many times
+        int byteBudget = 2000;
+        RewindHistory history = new RewindHistory(byteBudget, 1000, 1, 4);
+        history.reset(level);
+        step(history, level, state, 1, 500);
+
+        assertTrue(history.getUsedBytes() <= byteBudget, "used bytes");
+        assertTrue(history.getFrameCount() < 500, "frame count");
+        assertEquals(2, history.rewind(level, 2));
+        assertArrayEquals(stateAt(498), state);
+    }
+
+    @Test
+    public void frameLargerThanBudgetIsNotKept() {
+        long[] state = stateAt(0);
+        Level level = stateLevel(state);
+        RewindHistory history = new RewindHistory(16, 100, 1, 4);
+        history.reset(level);
+        step(history, level, state, 1, 10);
+
+        assertEquals(0, history.getFrameCount());
+        assertEquals(0, history.rewind(level, 5));
+        assertArrayEquals(stateAt(10), state);
+    }
+
+    @Test
+    public void rewindPastOldestFrameStopsAtIt() {
+        long[] state = stateAt(0);
+        Level level = stateLevel(state);
+        RewindHistory history = new RewindHistory(1 << 16, 10, 1, 4);
+        history.reset(level);
+        step(history, level, state, 1, 100);
+
+        int rewound = history.rewind(level, 1000);
+        assertTrue(rewound > 0 && rewound < 100, "ticks rewound");
+        assertArrayEquals(stateAt(100 - rewound), state);
+        assertEquals(1, history.getFrameCount());
+    }
+
+    /*
+     * Sets the state for each tick from first to last, recording it in the history.
+     */
+    private static void step(
+            RewindHistory history,
+            Level level,
+            long[] state,
+            int first,
+            int last) {
+        for (int tick = first; tick <= last; ++tick) {
+            System.arraycopy(stateAt(tick), 0, state, 0, LENGTH);
+            history.record(level);
+        }
+    }
+
+    /*
+     * Words that stay put, move steadily, speed up, or change arbitrarily from tick to tick.
+     */
+    private static long[] stateAt(int tick) {
+        long[] state = new long[LENGTH];
+        for (int i = 0; i < LENGTH; ++i) {
+            switch (i % 4) {
+                case 0:
+                    state[i] = Double.doubleToRawLongBits(i * 10.0);
+                    break;
+                case 1:
+                    state[i] = Double.doubleToRawLongBits(i + tick * 0.17);
+                    break;
+                case 2:
+                    state[i] = Double.doubleToRawLongBits(i + tick * tick * 0.01);
+                    break;
+                default:
+                    state[i] = (tick * 0x9E3779B97F4A7C15L + i) * 0xBF58476D1CE4E5B9L;
+                    break;
+            }
+        }
+        return state;
+    }
+
+    /*
+     * A level whose state is the provided vector, which is all a history reads and writes.
+     */
+    private static Level stateLevel(long[] state) {
+        return (Level) Proxy.newProxyInstance(Level.class.getClassLoader(), new Class<?>[]{Level.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getStateLength":
+                            return state.length;
+                        case "writeState":
+                            System.arraycopy(state, 0, (long[]) args[0], 0, state.length);
+                            return null;
+                        case "readState":
+                            System.arraycopy((long[]) args[0], 0, state, 0, state.length);
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
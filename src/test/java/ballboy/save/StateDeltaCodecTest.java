@@ -0,0 +1,84 @@
+package ballboy.save;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that frames decode to exactly the states they were encoded from.
+ */
+public class StateDeltaCodecTest {
+    private static final int LENGTH = 64;
+
+    @Test
+    public void keyframeRoundTrips() {
+        long[] state = randomState(new Random(1));
+
+        assertArrayEquals(state, roundTrip(null, null, state));
+    }
+
+    @Test
+    public void deltaRoundTrips() {
+        Random random = new Random(2);
+        long[] previous = randomState(random);
+        long[] state = previous.clone();
+        for (int i = 0; i < LENGTH; i += 3) {
+            state[i] = random.nextLong();
+        }
+
+        assertArrayEquals(state, roundTrip(null, previous, state));
+    }
+
+    @Test
+    public void extrapolatedDeltaRoundTrips() {
+        Random random = new Random(3);
+        long[] older = new long[LENGTH];
+        long[] previous = new long[LENGTH];
+        long[] state = new long[LENGTH];
+        for (int i = 0; i < LENGTH; ++i) {
+            // steady motion, motion that changes speed, and words that are not doubles at all
+            double position = random.nextDouble() * 1000;
+            double velocity = i % 4 == 0 ? 0 : random.nextDouble() * 10 - 5;
+            older[i] = Double.doubleToRawLongBits(position);
+            previous[i] = Double.doubleToRawLongBits(position + velocity);
+            state[i] = Double.doubleToRawLongBits(position + velocity * (i % 4 == 1 ? 3 : 2));
+            if (i % 7 == 0) {
+                state[i] = random.nextLong();
+            }
+        }
+
+        assertArrayEquals(state, roundTrip(older, previous, state));
+    }
+
+    @Test
+    public void unchangedStateEncodesToOneRun() {
+        long[] state = randomState(new Random(4));
+        byte[] frame = new byte[StateDeltaCodec.maxEncodedLength(LENGTH)];
+
+        assertTrue(StateDeltaCodec.encode(null, state, state, frame) <= 2, "frame length");
+    }
+
+    private static long[] roundTrip(
+            long[] older,
+            long[] previous,
+            long[] state) {
+        byte[] frame = new byte[StateDeltaCodec.maxEncodedLength(state.length)];
+        int length = StateDeltaCodec.encode(older, previous, state, frame);
+        assertTrue(length <= frame.length, "frame length");
+
+        long[] decoded = new long[state.length];
+        StateDeltaCodec.decode(frame, 0, older, previous, decoded);
+        return decoded;
+    }
+
+    private static long[] randomState(Random random) {
+        long[] state = new long[LENGTH];
+        for (int i = 0; i < LENGTH; ++i) {
+            state[i] = i % 2 == 0 ? Double.doubleToRawLongBits(random.nextDouble() * 1000) : random.nextLong();
+        }
+        return state;
+    }
+}